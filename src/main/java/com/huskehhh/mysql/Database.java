@@ -1,26 +1,81 @@
 package com.huskehhh.mysql;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 
 import me.A5H73Y.parkour.utilities.Utils;
 
 /**
  * Abstract Database class.
  * Serves as a base for any connection method (MySQL, SQLite, etc.).
+ * <p>
+ * Connections can either be opened and closed manually, or borrowed from
+ * and returned to a bounded pool of long-lived connections.
+ * Each pooled connection caches its prepared statements, so a statement
+ * is only prepared once for the lifetime of the connection.
  *
  * @author -_Husky_-
  * @author tips48
  */
 public abstract class Database {
 
+    /**
+     * Seconds to wait for a pooled connection to respond to validation.
+     */
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    /**
+     * Milliseconds to wait for a pooled connection to become available.
+     */
+    private static final long BORROW_TIMEOUT = 5000;
+
+    /**
+     * Milliseconds a pooled connection may sit idle before it is closed.
+     */
+    private static final long IDLE_TIMEOUT = 300000;
+
+    /**
+     * Milliseconds a connection may be borrowed before it's reported as leaked.
+     */
+    private static final long LEAK_THRESHOLD = 30000;
+
     /**
      * Connection to the Database.
      */
     private Connection connection;
 
+    /**
+     * Idle pooled connections, most recently returned first.
+     */
+    private final Deque<PooledConnection> idleConnections = new ArrayDeque<>();
+
+    /**
+     * Pooled connections which are currently borrowed.
+     */
+    private final Map<Connection, PooledConnection> borrowedConnections = new IdentityHashMap<>();
+
+    /**
+     * Pool slots reserved by borrowers which are validating or creating a connection.
+     */
+    private int reservedConnections;
+
+    /**
+     * Maximum number of pooled connections, idle and borrowed combined.
+     */
+    private int maxPoolSize = 1;
+
     /**
      * Create a new Database instance.
      */
@@ -28,15 +83,31 @@ public abstract class Database {
         this.connection = null;
     }
 
+    /**
+     * Create a brand new connection to the database.
+     *
+     * @return new connection
+     * @throws SQLException           if the connection can not be opened
+     * @throws ClassNotFoundException if the driver cannot be found
+     */
+    protected abstract Connection createConnection()
+            throws SQLException, ClassNotFoundException;
+
     /**
      * Open a connection to the database.
+     * If a connection is already open, it will be returned.
      *
      * @return Opened connection
      * @throws SQLException           if the connection can not be opened
      * @throws ClassNotFoundException if the driver cannot be found
      */
-    public abstract Connection openConnection()
-            throws SQLException, ClassNotFoundException;
+    public final Connection openConnection()
+            throws SQLException, ClassNotFoundException {
+        if (!checkConnection()) {
+            connection = createConnection();
+        }
+        return connection;
+    }
 
     /**
      * Checks if a connection is open with the database.
@@ -89,6 +160,383 @@ public abstract class Database {
         return true;
     }
 
+    /**
+     * Set the maximum number of pooled connections.
+     *
+     * @param maxPoolSize maximum connections, at least 1
+     */
+    public final synchronized void setMaxPoolSize(final int maxPoolSize) {
+        this.maxPoolSize = Math.max(1, maxPoolSize);
+    }
+
+    /**
+     * Gets the maximum number of pooled connections.
+     *
+     * @return maximum pool size
+     */
+    public final synchronized int getMaxPoolSize() {
+        return maxPoolSize;
+    }
+
+    /**
+     * Gets the number of pooled connections currently borrowed.
+     *
+     * @return borrowed connections
+     */
+    public final synchronized int getBorrowedConnections() {
+        return borrowedConnections.size();
+    }
+
+    /**
+     * Gets the number of pooled connections currently idle.
+     *
+     * @return idle connections
+     */
+    public final synchronized int getIdleConnections() {
+        return idleConnections.size();
+    }
+
+    /**
+     * Borrow a connection from the pool.
+     * <p>
+     * Idle connections are validated before being handed out, and a new
+     * connection is created if the pool has not reached its maximum size.
+     * Otherwise it will wait for a connection to be returned.
+     * A slot in the pool is reserved while the connection is validated or created,
+     * so neither holds up the other threads using the pool.
+     * The connection must be given back using {@link #returnConnection(Connection)}.
+     *
+     * @return pooled connection
+     * @throws SQLException           if a connection could not be obtained in time
+     * @throws ClassNotFoundException if the driver cannot be found
+     */
+    public final Connection borrowConnection()
+            throws SQLException, ClassNotFoundException {
+        long deadline = System.currentTimeMillis() + BORROW_TIMEOUT;
+        synchronized (this) {
+            evictIdleConnections();
+            detectLeakedConnections();
+        }
+
+        while (true) {
+            PooledConnection pooled = reserveConnection(deadline);
+            boolean borrowed = false;
+
+            try {
+                if (pooled == null) {
+                    pooled = new PooledConnection(createConnection());
+
+                } else if (!isValid(pooled.connection)) {
+                    closeQuietly(pooled);
+                    continue;
+                }
+
+                synchronized (this) {
+                    borrowed = true;
+                    return markBorrowed(pooled);
+                }
+
+            } finally {
+                releaseReservation(borrowed);
+            }
+        }
+    }
+
+    /**
+     * Reserve a slot in the pool, waiting until one is available.
+     *
+     * @param deadline time to give up waiting
+     * @return idle connection to validate, or null if a new connection should be created
+     * @throws SQLException if no slot became available in time
+     */
+    private synchronized PooledConnection reserveConnection(long deadline) throws SQLException {
+        while (true) {
+            PooledConnection pooled = idleConnections.pollFirst();
+
+            if (pooled != null || borrowedConnections.size() + reservedConnections < maxPoolSize) {
+                reservedConnections++;
+                return pooled;
+            }
+
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                throw new SQLException("Timed out waiting for a database connection. "
+                        + borrowedConnections.size() + " of " + maxPoolSize + " are in use.");
+            }
+
+            try {
+                wait(remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a database connection.");
+            }
+        }
+    }
+
+    /**
+     * Release the reserved slot, once it has been borrowed or given up.
+     *
+     * @param borrowed whether the slot is now held by a borrowed connection
+     */
+    private synchronized void releaseReservation(boolean borrowed) {
+        reservedConnections--;
+        if (!borrowed) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * Return a borrowed connection to the pool.
+     * Connections which are closed, or no longer usable, are discarded.
+     *
+     * @param connection borrowed connection, ignored if null
+     */
+    public final synchronized void returnConnection(final Connection connection) {
+        if (connection == null) {
+            return;
+        }
+
+        PooledConnection pooled = borrowedConnections.remove(connection);
+        if (pooled == null) {
+            return;
+        }
+
+        try {
+            if (connection.isClosed()) {
+                notifyAll();
+                return;
+            }
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+                for (PreparedStatement statement : pooled.statements.values()) {
+                    statement.clearBatch();
+                }
+            }
+            pooled.timestamp = System.currentTimeMillis();
+            idleConnections.offerFirst(pooled);
+
+        } catch (SQLException e) {
+            Utils.log("SQL Error: " + e.getMessage(), 2);
+            closeQuietly(pooled);
+        }
+
+        evictIdleConnections();
+        notifyAll();
+    }
+
+    /**
+     * Close every pooled connection, whether idle or borrowed.
+     */
+    public final synchronized void closePool() {
+        for (PooledConnection pooled : idleConnections) {
+            closeQuietly(pooled);
+        }
+        for (PooledConnection pooled : borrowedConnections.values()) {
+            Utils.log("Closing database connection still borrowed by " + pooled.owner, 1);
+            closeQuietly(pooled);
+        }
+        idleConnections.clear();
+        borrowedConnections.clear();
+        notifyAll();
+    }
+
+    private Connection markBorrowed(PooledConnection pooled) {
+        pooled.timestamp = System.currentTimeMillis();
+        pooled.owner = Thread.currentThread().getName();
+        pooled.leakReported = false;
+        borrowedConnections.put(pooled.connection, pooled);
+        return pooled.connection;
+    }
+
+    /**
+     * Close the idle connections which have not been used recently.
+     * The least recently used connections are at the end of the queue.
+     */
+    private void evictIdleConnections() {
+        long now = System.currentTimeMillis();
+        Iterator<PooledConnection> iterator = idleConnections.descendingIterator();
+
+        while (iterator.hasNext()) {
+            PooledConnection pooled = iterator.next();
+            if (now - pooled.timestamp < IDLE_TIMEOUT) {
+                break;
+            }
+            iterator.remove();
+            closeQuietly(pooled);
+        }
+    }
+
+    /**
+     * Report the borrowed connections which have not been returned in time.
+     * Each leaked connection is only reported once per borrow.
+     */
+    private void detectLeakedConnections() {
+        long now = System.currentTimeMillis();
+
+        for (PooledConnection pooled : borrowedConnections.values()) {
+            if (!pooled.leakReported && now - pooled.timestamp > LEAK_THRESHOLD) {
+                pooled.leakReported = true;
+                Utils.log("Database connection borrowed by " + pooled.owner + " has not been returned after "
+                        + ((now - pooled.timestamp) / 1000) + " seconds.", 1);
+            }
+        }
+    }
+
+    private boolean isValid(Connection connection) {
+        try {
+            return !connection.isClosed() && connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Close the pooled connection, along with its cached statements.
+     */
+    private void closeQuietly(PooledConnection pooled) {
+        try {
+            for (PreparedStatement statement : pooled.statements.values()) {
+                statement.close();
+            }
+            pooled.statements.clear();
+            pooled.connection.close();
+        } catch (SQLException e) {
+            Utils.log("SQL Error: " + e.getMessage(), 2);
+        }
+    }
+
+    /**
+     * Get a prepared statement for the borrowed connection.
+     * <p>
+     * The statement is prepared the first time the SQL is used on the connection,
+     * and reused until the connection is closed. It belongs to the pool, so must not be closed.
+     *
+     * @param connection borrowed connection
+     * @param sql        SQL to prepare
+     * @return cached prepared statement
+     * @throws SQLException if the connection is not borrowed, or the statement cannot be prepared
+     */
+    public final PreparedStatement prepareStatement(final Connection connection, final String sql)
+            throws SQLException {
+        PooledConnection pooled;
+        synchronized (this) {
+            pooled = borrowedConnections.get(connection);
+        }
+
+        if (pooled == null) {
+            throw new SQLException("Connection must be borrowed from the pool to prepare a cached statement.");
+        }
+
+        // only the borrowing thread has access to the statements
+        PreparedStatement statement = pooled.statements.get(sql);
+        if (statement == null || statement.isClosed()) {
+            statement = connection.prepareStatement(sql);
+            pooled.statements.put(sql, statement);
+        }
+        return statement;
+    }
+
+    /**
+     * Bind the parameters to the statement, in order.
+     * Common types are bound explicitly so they are handled the same by each driver.
+     *
+     * @param statement  statement to bind to
+     * @param parameters parameters to bind
+     * @throws SQLException if a parameter cannot be bound
+     */
+    public static void bind(final PreparedStatement statement, final Object... parameters)
+            throws SQLException {
+        for (int i = 0; i < parameters.length; i++) {
+            int index = i + 1;
+            Object parameter = parameters[i];
+
+            if (parameter == null) {
+                statement.setNull(index, Types.NULL);
+            } else if (parameter instanceof String) {
+                statement.setString(index, (String) parameter);
+            } else if (parameter instanceof Integer) {
+                statement.setInt(index, (Integer) parameter);
+            } else if (parameter instanceof Long) {
+                statement.setLong(index, (Long) parameter);
+            } else if (parameter instanceof Boolean) {
+                statement.setInt(index, (Boolean) parameter ? 1 : 0);
+            } else {
+                statement.setObject(index, parameter);
+            }
+        }
+    }
+
+    /**
+     * Execute a query using a pooled connection and cached statement.
+     * The ResultSet is closed and the connection returned before this method returns.
+     *
+     * @param sql        query to execute
+     * @param mapper     maps each row
+     * @param parameters parameters to bind
+     * @param <T>        mapped type
+     * @return mapped rows, in order
+     * @throws SQLException           if the query cannot be executed
+     * @throws ClassNotFoundException if the driver cannot be found
+     */
+    public final <T> List<T> query(final String sql, final RowMapper<T> mapper, final Object... parameters)
+            throws SQLException, ClassNotFoundException {
+        List<T> results = new ArrayList<>();
+        Connection connection = borrowConnection();
+
+        try {
+            PreparedStatement statement = prepareStatement(connection, sql);
+            bind(statement, parameters);
+
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    results.add(mapper.map(rs));
+                }
+            }
+        } finally {
+            returnConnection(connection);
+        }
+        return results;
+    }
+
+    /**
+     * Execute a query which is expected to return at most one row.
+     *
+     * @param sql        query to execute
+     * @param mapper     maps the row
+     * @param parameters parameters to bind
+     * @param <T>        mapped type
+     * @return mapped row, null if there were no results
+     * @throws SQLException           if the query cannot be executed
+     * @throws ClassNotFoundException if the driver cannot be found
+     */
+    public final <T> T querySingle(final String sql, final RowMapper<T> mapper, final Object... parameters)
+            throws SQLException, ClassNotFoundException {
+        List<T> results = query(sql, mapper, parameters);
+        return results.isEmpty() ? null : results.get(0);
+    }
+
+    /**
+     * Execute an update using a pooled connection and cached statement.
+     *
+     * @param sql        update to execute
+     * @param parameters parameters to bind
+     * @return number of rows affected
+     * @throws SQLException           if the update cannot be executed
+     * @throws ClassNotFoundException if the driver cannot be found
+     */
+    public final int update(final String sql, final Object... parameters)
+            throws SQLException, ClassNotFoundException {
+        Connection connection = borrowConnection();
+
+        try {
+            PreparedStatement statement = prepareStatement(connection, sql);
+            bind(statement, parameters);
+            return statement.executeUpdate();
+        } finally {
+            returnConnection(connection);
+        }
+    }
 
     /**
      * Executes a SQL Query.
@@ -129,4 +577,21 @@ public abstract class Database {
         Statement statement = connection.createStatement();
         return statement.executeUpdate(query);
     }
+
+    /**
+     * A connection managed by the pool.
+     */
+    private static class PooledConnection {
+
+        private final Connection connection;
+        private final Map<String, PreparedStatement> statements = new HashMap<>();
+        private long timestamp;
+        private String owner;
+        private boolean leakReported;
+
+        private PooledConnection(Connection connection) {
+            this.connection = connection;
+            this.timestamp = System.currentTimeMillis();
+        }
+    }
 }
@@ -0,0 +1,22 @@
+package com.huskehhh.mysql;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps the current row of a ResultSet into an object.
+ *
+ * @param <T> mapped type
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    /**
+     * Map the current row, the ResultSet must not be advanced or closed.
+     *
+     * @param rs ResultSet positioned on the row
+     * @return mapped row
+     * @throws SQLException if a column cannot be read
+     */
+    T map(ResultSet rs) throws SQLException;
+}
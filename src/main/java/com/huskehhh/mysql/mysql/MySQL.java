@@ -39,22 +39,13 @@ public class MySQL extends Database {
     }
 
     @Override
-    public final Connection openConnection() {
-        if (checkConnection()) {
-            return getConnection();
-        }
-
+    protected final Connection createConnection() throws SQLException, ClassNotFoundException {
         String connectionURL = "jdbc:mysql://" + this.hostname + ":" + this.port;
         if (database != null) {
             connectionURL += "/" + this.database;
         }
 
-        try {
-            Class.forName("com.mysql.jdbc.Driver");
-            setConnection(DriverManager.getConnection(connectionURL, this.user, this.password));
-        } catch (ClassNotFoundException | SQLException e) {
-            e.printStackTrace();
-        }
-        return getConnection();
+        Class.forName("com.mysql.jdbc.Driver");
+        return DriverManager.getConnection(connectionURL, this.user, this.password);
     }
 }
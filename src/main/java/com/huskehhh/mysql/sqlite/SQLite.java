@@ -12,6 +12,10 @@ import me.A5H73Y.parkour.utilities.Utils;
 
 /**
  * Connects to and uses a SQLite database.
+ * <p>
+ * The pool is left at a single connection, as SQLite only allows one writer at a time.
+ * The database writer and the query threads share that connection,
+ * so a query will wait for any batch of writes in progress to be committed.
  *
  * @author tips48
  */
@@ -29,11 +33,7 @@ public class SQLite extends Database {
     }
 
     @Override
-    public final Connection openConnection() {
-        if (checkConnection()) {
-            return getConnection();
-        }
-
+    protected final Connection createConnection() throws SQLException, ClassNotFoundException {
         String pathOverride = Parkour.getPlugin().getConfig().getString("SQLite.PathOverride");
         String path = pathOverride.isEmpty() ? "plugins/Parkour/sqlite-db" : pathOverride;
 
@@ -51,12 +51,7 @@ public class SQLite extends Database {
             }
         }
 
-        try {
-            Class.forName("org.sqlite.JDBC");
-            setConnection(DriverManager.getConnection("jdbc:sqlite:" + dataFolder + "/" + dbLocation));
-        } catch (SQLException | ClassNotFoundException ex) {
-            Utils.log("Error occurred: " + ex.getMessage(), 2);
-        }
-        return getConnection();
+        Class.forName("org.sqlite.JDBC");
+        return DriverManager.getConnection("jdbc:sqlite:" + dataFolder + "/" + dbLocation);
     }
 }
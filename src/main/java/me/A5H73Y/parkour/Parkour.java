@@ -11,12 +11,15 @@ import me.A5H73Y.parkour.listener.PlayerInventoryListener;
 import me.A5H73Y.parkour.listener.PlayerListener;
 import me.A5H73Y.parkour.listener.PlayerMoveListener;
 import me.A5H73Y.parkour.listener.SignListener;
+import me.A5H73Y.parkour.listener.WorldListener;
+import me.A5H73Y.parkour.manager.DatabaseQueryManager;
+import me.A5H73Y.parkour.manager.DatabaseWriteManager;
 import me.A5H73Y.parkour.manager.ScoreboardManager;
+import me.A5H73Y.parkour.manager.SessionJournalManager;
 import me.A5H73Y.parkour.other.Backup;
 import me.A5H73Y.parkour.other.Configurations;
 import me.A5H73Y.parkour.other.StartPlugin;
 import me.A5H73Y.parkour.other.Updater;
-import me.A5H73Y.parkour.player.PlayerMethods;
 import me.A5H73Y.parkour.utilities.Settings;
 import me.A5H73Y.parkour.utilities.Static;
 import me.A5H73Y.parkour.utilities.Utils;
@@ -83,13 +86,16 @@ public class Parkour extends JavaPlugin {
     }
 
     public void onDisable() {
-        Utils.saveAllPlaying(PlayerMethods.getPlaying(), Static.PLAYING_BIN_PATH);
+        SessionJournalManager.getInstance().shutdown();
         config.saveAll();
         if (instance.getConfig().getBoolean("Other.OnServerShutdown.BackupFiles")) {
             Backup.backupNow();
         }
         getParkourConfig().reload();
+        DatabaseQueryManager.getInstance().shutdown();
+        DatabaseWriteManager.getInstance().shutdown();
         database.closeConnection();
+        database.closePool();
         Utils.log("Disabled Parkour v" + Static.getVersion());
         instance = null;
     }
@@ -102,6 +108,7 @@ public class Parkour extends JavaPlugin {
         getServer().getPluginManager().registerEvents(new PlayerMoveListener(), this);
         getServer().getPluginManager().registerEvents(new SignListener(), this);
         getServer().getPluginManager().registerEvents(new PlayerInventoryListener(), this);
+        getServer().getPluginManager().registerEvents(new WorldListener(), this);
     }
 
     private void registerCommands() {
@@ -1,10 +1,16 @@
 package me.A5H73Y.parkour;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 import me.A5H73Y.parkour.course.Course;
 import me.A5H73Y.parkour.course.CourseInfo;
 import me.A5H73Y.parkour.course.CourseMethods;
+import me.A5H73Y.parkour.other.LeaderboardPosition;
 import me.A5H73Y.parkour.other.TimeObject;
 import me.A5H73Y.parkour.other.Validation;
 import me.A5H73Y.parkour.player.ParkourSession;
@@ -20,6 +26,11 @@ public class ParkourPlaceholders extends PlaceholderExpansion {
 
     private static final String INVALID_SYNTAX = "Invalid Syntax";
     private static final String NO_TIME_RECORDED = "No time recorded";
+    // results which haven't been requested for this long are forgotten, such as those of players who have left
+    private static final long RESULT_EXPIRY = 300000;
+    private final Map<String, CachedResult> cachedResults = new ConcurrentHashMap<>();
+    private final Set<String> pendingResults = ConcurrentHashMap.newKeySet();
+    private volatile long nextExpiry;
     private Parkour plugin;
 
     public ParkourPlaceholders(Parkour plugin) {
@@ -80,6 +91,32 @@ public class ParkourPlaceholders extends PlaceholderExpansion {
             TimeObject result = getTopResultForCourse(temp[3]);
             return result == null ? NO_TIME_RECORDED : String.valueOf(result.getDeaths());
 
+        } else if (message.startsWith("position_total")) {
+            String[] temp = message.split("_");
+            if (temp.length != 3) {
+                return INVALID_SYNTAX;
+            }
+
+            if (!CourseMethods.exist(temp[2])) {
+                return NO_TIME_RECORDED;
+            }
+
+            Integer total = getResult("position_total_" + temp[2], () -> DatabaseMethods.getCompletedPlayerCountAsync(temp[2]));
+            return total == null ? NO_TIME_RECORDED : String.valueOf(total);
+
+        } else if (message.startsWith("course_liked")) {
+            String[] temp = message.split("_");
+            if (temp.length != 3) {
+                return INVALID_SYNTAX;
+            }
+
+            if (!CourseMethods.exist(temp[2])) {
+                return "0";
+            }
+
+            Double likePercent = getResult("course_liked_" + temp[2], () -> DatabaseMethods.getVotePercentAsync(temp[2]));
+            return likePercent == null ? "0" : String.valueOf(Math.round(likePercent));
+
         } else if (message.startsWith("leader")) {
             String[] temp = message.split("_");
             if (temp.length != 2) {
@@ -175,8 +212,17 @@ public class ParkourPlaceholders extends PlaceholderExpansion {
             }
             return "";
 
+        } else if (message.startsWith("position")) {
+            String[] temp = message.split("_");
+            if (temp.length != 2) {
+                return INVALID_SYNTAX;
+            }
+
+            LeaderboardPosition position = getPositionForCourse(player.getName(), temp[1]);
+            return position == null ? NO_TIME_RECORDED : String.valueOf(position.getPosition());
+
         } else if (message.equals("current_course_timer")) {
-            ParkourSession session = PlayerMethods.getParkourSession(player.getName());
+            ParkourSession session = PlayerMethods.getParkourSession(player);
             return session == null ? "" : session.getLiveTime();
 
         } else if (message.startsWith("topten")) {
@@ -195,8 +241,8 @@ public class ParkourPlaceholders extends PlaceholderExpansion {
             if (!CourseMethods.exist(courseName)) {
                 return NO_TIME_RECORDED;
             }
-            List<TimeObject> results = DatabaseMethods.getTopCourseResults(courseName, pos);
-            if (results.isEmpty()) {
+            List<TimeObject> results = getResult("topten_" + courseName + "_" + pos, () -> DatabaseMethods.getTopCourseResultsAsync(courseName, pos));
+            if (results == null || results.isEmpty()) {
                 return NO_TIME_RECORDED;
 
             } else if (pos > results.size()) {
@@ -226,8 +272,16 @@ public class ParkourPlaceholders extends PlaceholderExpansion {
             return null;
         }
 
-        List<TimeObject> time = DatabaseMethods.getTopCourseResults(courseName, 1);
-        return time.isEmpty() ? null : time.get(0);
+        List<TimeObject> time = getResult("record_" + courseName, () -> DatabaseMethods.getTopCourseResultsAsync(courseName, 1));
+        return time == null || time.isEmpty() ? null : time.get(0);
+    }
+
+    private LeaderboardPosition getPositionForCourse(String playerName, String courseName) {
+        if (!CourseMethods.exist(courseName)) {
+            return null;
+        }
+
+        return getResult("position_" + playerName + "_" + courseName, () -> DatabaseMethods.getLeaderboardPositionAsync(playerName, courseName, 0));
     }
 
     private TimeObject getTopPlayerResultForCourse(String playerName, String courseName) {
@@ -235,7 +289,62 @@ public class ParkourPlaceholders extends PlaceholderExpansion {
             return null;
         }
 
-        List<TimeObject> time = DatabaseMethods.getTopPlayerCourseResults(playerName, courseName, 1);
-        return time.isEmpty() ? null : time.get(0);
+        List<TimeObject> time = getResult("personal_" + playerName + "_" + courseName, () -> DatabaseMethods.getTopPlayerCourseResultsAsync(playerName, courseName, 1));
+        return time == null || time.isEmpty() ? null : time.get(0);
+    }
+
+    /**
+     * Placeholders are requested on the server thread, so they can't wait for the database.
+     * Results available from the leaderboards are returned immediately, otherwise the
+     * previous result is returned while the latest is retrieved in the background.
+     * Results which are no longer being requested expire, so the cache doesn't keep growing.
+     *
+     * @param key unique key for the result
+     * @param query retrieves the result
+     * @return latest result available, null if there isn't one yet
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T getResult(String key, Supplier<CompletableFuture<T>> query) {
+        long now = System.currentTimeMillis();
+        expireResults(now);
+
+        if (pendingResults.add(key)) {
+            query.get().whenComplete((result, error) -> {
+                if (result != null) {
+                    cachedResults.put(key, new CachedResult(result, System.currentTimeMillis()));
+                } else if (error == null) {
+                    cachedResults.remove(key);
+                }
+                pendingResults.remove(key);
+            });
+        }
+
+        CachedResult cached = cachedResults.get(key);
+        if (cached == null) {
+            return null;
+        }
+
+        cached.lastRequested = now;
+        return (T) cached.value;
+    }
+
+    private void expireResults(long now) {
+        if (now < nextExpiry) {
+            return;
+        }
+
+        nextExpiry = now + RESULT_EXPIRY;
+        cachedResults.values().removeIf(cached -> cached.lastRequested < now - RESULT_EXPIRY);
+    }
+
+    private static class CachedResult {
+
+        private final Object value;
+        private volatile long lastRequested;
+
+        private CachedResult(Object value, long lastRequested) {
+            this.value = value;
+            this.lastRequested = lastRequested;
+        }
     }
 }
@@ -1,7 +1,12 @@
 package me.A5H73Y.parkour.conversation;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 import me.A5H73Y.parkour.Parkour;
 import me.A5H73Y.parkour.course.CourseInfo;
+import me.A5H73Y.parkour.manager.DatabaseQueryManager;
+import me.A5H73Y.parkour.other.TimeObject;
 import me.A5H73Y.parkour.utilities.DatabaseMethods;
 import me.A5H73Y.parkour.utilities.Utils;
 import org.bukkit.Bukkit;
@@ -34,7 +39,7 @@ public class LeaderboardConversation extends ParkourConversation {
 
         @Override
         public Prompt acceptInput(ConversationContext context, String message) {
-            if (!CourseInfo.getAllCourses().contains(message.toLowerCase())) {
+            if (!CourseInfo.hasCourse(message.toLowerCase())) {
                 ParkourConversation.sendErrorMessage(context, "This course does not exist");
                 return this;
             }
@@ -96,12 +101,18 @@ public class LeaderboardConversation extends ParkourConversation {
             final Integer amount = (Integer) context.getSessionData("amount");
             final Player player = Bukkit.getPlayer((String) context.getSessionData("playerName"));
 
-            Bukkit.getScheduler().runTaskLaterAsynchronously(Parkour.getPlugin(), () -> {
+            Bukkit.getScheduler().runTaskLater(Parkour.getPlugin(), () -> {
+                CompletableFuture<List<TimeObject>> results;
                 if (leaderboardType.equals("personal")) {
-                    Utils.displayLeaderboard(player, DatabaseMethods.getTopPlayerCourseResults(player.getName(), courseName, amount), courseName);
+                    results = DatabaseMethods.getTopPlayerCourseResultsAsync(player.getName(), courseName, amount);
                 } else if (leaderboardType.equals("global")) {
-                    Utils.displayLeaderboard(player, DatabaseMethods.getTopCourseResults(courseName, amount), courseName);
+                    results = DatabaseMethods.getTopCourseResultsAsync(courseName, amount);
+                } else {
+                    return;
                 }
+
+                DatabaseQueryManager.getInstance().thenSync(results,
+                        times -> Utils.displayLeaderboard(player, times, courseName));
             }, 3);
 
             return "";
@@ -2,8 +2,10 @@ package me.A5H73Y.parkour.course;
 
 import java.io.Serializable;
 
+import me.A5H73Y.parkour.utilities.Utils;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
+import org.bukkit.World;
 
 public class Checkpoint implements Serializable {
 
@@ -13,6 +15,9 @@ public class Checkpoint implements Serializable {
     private float pitch, yaw;
     private String world;
     private double nextCheckpointX, nextCheckpointY, nextCheckpointZ;
+    private long nextPressurePlate;
+
+    private transient Location location;
 
     /**
      * The location is used for where the player is physically teleported.
@@ -20,15 +25,28 @@ public class Checkpoint implements Serializable {
      * As locations are transient, we must reconstruct the Checkpoints after a reload.
      */
     public Checkpoint(Location location, double nextCheckpointX, double nextCheckpointY, double nextCheckpointZ) {
-        this.x = location.getX();
-        this.y = location.getY();
-        this.z = location.getZ();
-        this.yaw = location.getYaw();
-        this.pitch = location.getPitch();
-        this.world = location.getWorld().getName();
+        this(location.getWorld(), location.getWorld().getName(), location.getX(), location.getY(), location.getZ(),
+                location.getYaw(), location.getPitch(), nextCheckpointX, nextCheckpointY, nextCheckpointZ);
+    }
+
+    /**
+     * A checkpoint of a course, with the world already resolved.
+     * The world may be null if it isn't loaded.
+     */
+    Checkpoint(World world, String worldName, double x, double y, double z, float yaw, float pitch,
+               double nextCheckpointX, double nextCheckpointY, double nextCheckpointZ) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.yaw = yaw;
+        this.pitch = pitch;
+        this.world = worldName;
         this.nextCheckpointX = nextCheckpointX;
         this.nextCheckpointY = nextCheckpointY;
         this.nextCheckpointZ = nextCheckpointZ;
+        this.nextPressurePlate = Utils.packBlockCoordinates(
+                (int) nextCheckpointX, (int) nextCheckpointY, (int) nextCheckpointZ);
+        this.location = new Location(world, x, y, z, yaw, pitch);
     }
 
     public String getWorld() {
@@ -47,7 +65,28 @@ public class Checkpoint implements Serializable {
         return nextCheckpointZ;
     }
 
+    /**
+     * Check if the block coordinates are those of the next checkpoint's pressure plate.
+     *
+     * @param blockX
+     * @param blockY
+     * @param blockZ
+     * @return is next pressure plate
+     */
+    public boolean isNextPressurePlate(int blockX, int blockY, int blockZ) {
+        return nextPressurePlate == Utils.packBlockCoordinates(blockX, blockY, blockZ);
+    }
+
+    /**
+     * The location the player is teleported to.
+     * The same location is returned every time, so it must not be modified.
+     *
+     * @return checkpoint location
+     */
     public Location getLocation() {
-        return new Location(Bukkit.getWorld(world), x, y, z, yaw, pitch);
+        if (location == null) {
+            location = new Location(Bukkit.getWorld(world), x, y, z, yaw, pitch);
+        }
+        return location;
     }
 }
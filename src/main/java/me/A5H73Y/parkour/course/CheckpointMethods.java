@@ -19,37 +19,17 @@ import org.bukkit.entity.Player;
 public class CheckpointMethods {
 
     /**
-     * Retrieval of next Checkpoint.
-     * Each Checkpoint has a Location to teleport back to and an X,Y,Z coordinate for pressureplate detection.
-     * NOTE: Checkpoint 0 will be made, this is JUST for the joining of the course, the X,Y,Z will be 0.
+     * Retrieval of a Checkpoint.
+     * Each Checkpoint has a Location to teleport back to and an X,Y,Z coordinate for the next pressureplate detection.
+     * The checkpoints are built once per course, so the same Checkpoint is returned every time.
+     * NOTE: Checkpoint 0 is the start of the course, used for joining the course.
      *
      * @param courseName   the course
      * @param currentPoint the current checkpoint number
      * @return Checkpoint
      */
-    public static Checkpoint getNextCheckpoint(String courseName, int currentPoint) {
-        FileConfiguration courseData = Parkour.getParkourConfig().getCourseData();
-        FileConfiguration checkData = Parkour.getParkourConfig().getCheckData();
-
-        String checkpointPath = courseName + "." + currentPoint + ".";
-
-        // the 'current' checkpoint location, i.e. where to teleport back to
-        double x = courseData.getDouble(checkpointPath + "X");
-        double y = courseData.getDouble(checkpointPath + "Y");
-        double z = courseData.getDouble(checkpointPath + "Z");
-        float yaw = (float) courseData.getDouble(checkpointPath + "Yaw");
-        float pitch = (float) courseData.getDouble(checkpointPath + "Pitch");
-        World world = Bukkit.getWorld(courseData.getString(courseName + "." + "World"));
-        Location location = new Location(world, x, y, z, yaw, pitch);
-
-        // get the next checkpoint pressure plate location
-        checkpointPath = courseName + "." + (currentPoint + 1) + ".";
-
-        double nCheckX = checkData.getDouble(checkpointPath + "X");
-        double nCheckY = checkData.getDouble(checkpointPath + "Y");
-        double nCheckZ = checkData.getDouble(checkpointPath + "Z");
-
-        return new Checkpoint(location, nCheckX, nCheckY, nCheckZ);
+    public static Checkpoint getCheckpoint(String courseName, int currentPoint) {
+        return CourseInfo.getBlueprint(courseName).getCheckpoint(currentPoint);
     }
 
     /**
@@ -132,6 +112,7 @@ public class CheckpointMethods {
 
         Parkour.getParkourConfig().saveCheck();
         Parkour.getParkourConfig().saveCourses();
+        CourseInfo.refreshBlueprint(selected);
     }
 
     /**
@@ -194,6 +175,7 @@ public class CheckpointMethods {
         Parkour.getParkourConfig().getCheckData().set(courseName + "." + point, null);
         Parkour.getParkourConfig().saveCourses();
         Parkour.getParkourConfig().saveCheck();
+        CourseInfo.refreshBlueprint(courseName);
 
         player.sendMessage(Utils.getTranslation("Parkour.DeleteCheckpoint")
                 .replace("%CHECKPOINT%", String.valueOf(point))
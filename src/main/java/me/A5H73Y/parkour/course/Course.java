@@ -10,7 +10,8 @@ public class Course implements Serializable {
     private static final long serialVersionUID = 1L;
 
     private String name;
-    private Checkpoint currentCheckpoint;
+    // a checkpoint set at the player's location, used instead of the course's checkpoints
+    private Checkpoint customCheckpoint;
     private Integer maxDeaths;
     private Integer maxTime;
     private int checkpoints;
@@ -24,12 +25,10 @@ public class Course implements Serializable {
      * Construct a Parkour Course.
      *
      * @param name       course name
-     * @param checkpoint starting checkpoint
      * @param parkourKit linked ParkourKit
      */
-    public Course(String name, Checkpoint checkpoint, ParkourKit parkourKit) {
+    public Course(String name, ParkourKit parkourKit) {
         this.name = name;
-        this.currentCheckpoint = checkpoint;
         this.parkourKit = parkourKit;
         this.checkpoints = CourseInfo.getCheckpointAmount(name);
         setMaxDeaths(CourseInfo.getMaximumDeaths(name));
@@ -41,10 +40,9 @@ public class Course implements Serializable {
      * The ParkourKit will use 'default'.
      *
      * @param name       course name
-     * @param checkpoint starting checkpoint
      */
-    public Course(String name, Checkpoint checkpoint) {
-        this(name, checkpoint, ParkourKit.getParkourKit(Constants.DEFAULT));
+    public Course(String name) {
+        this(name, ParkourKit.getParkourKit(Constants.DEFAULT));
     }
 
     /**
@@ -58,21 +56,24 @@ public class Course implements Serializable {
     }
 
     /**
-     * Get the current checkpoint achieved.
+     * Get the checkpoint of the course.
+     * If a custom checkpoint has been set, it's used instead.
      *
+     * @param point checkpoint number
      * @return Checkpoint
      */
-    public Checkpoint getCurrentCheckpoint() {
-        return currentCheckpoint;
+    public Checkpoint getCheckpoint(int point) {
+        return customCheckpoint != null ? customCheckpoint : CheckpointMethods.getCheckpoint(name, point);
     }
 
     /**
-     * Set the current achieved checkpoint.
+     * Set a custom checkpoint, such as one saved at the player's location.
+     * Set to null to return to the course's checkpoints.
      *
      * @param checkpoint
      */
-    public void setCheckpoint(Checkpoint checkpoint) {
-        this.currentCheckpoint = checkpoint;
+    public void setCustomCheckpoint(Checkpoint checkpoint) {
+        this.customCheckpoint = checkpoint;
     }
 
     /**
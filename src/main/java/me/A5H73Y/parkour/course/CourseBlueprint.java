@@ -0,0 +1,238 @@
+package me.A5H73Y.parkour.course;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import me.A5H73Y.parkour.other.Constants;
+import me.A5H73Y.parkour.utilities.Utils;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.MemoryConfiguration;
+import org.bukkit.configuration.file.FileConfiguration;
+
+/**
+ * Every setting of a course, read once from courses.yml and checkpoints.yml.
+ * A blueprint is never modified, when the course changes a new blueprint is built to replace it.
+ * The version increases with every blueprint built, so a newer blueprint can be told apart from an older one.
+ */
+public class CourseBlueprint {
+
+    private static final AtomicLong VERSIONS = new AtomicLong();
+
+    private final String name;
+    private final long version;
+
+    private final String creator;
+    private final String world;
+    private final String mode;
+    private final String parkourKit;
+    private final String linkedCourse;
+    private final String linkedLobby;
+    private final boolean finished;
+    private final int minimumLevel;
+    private final int maximumDeaths;
+    private final int maximumTime;
+
+    private final List<String> commandsPrize;
+    private final Material materialPrize;
+    private final int materialPrizeAmount;
+    private final int xpPrize;
+    private final int rewardLevel;
+    private final int rewardLevelAdd;
+    private final boolean rewardOnce;
+    private final int rewardDelay;
+    private final int rewardParkoins;
+
+    private final Material joinItem;
+    private final int joinItemAmount;
+    private final String joinItemLabel;
+
+    private final int checkpointAmount;
+    private final Checkpoint[] checkpoints;
+
+    /**
+     * Build the blueprint of the course from the current contents of the files.
+     *
+     * @param courseName lowercase course name
+     * @param courseData courses.yml
+     * @param checkData checkpoints.yml
+     * @param world the course's world, or null if it isn't loaded
+     */
+    CourseBlueprint(String courseName, FileConfiguration courseData, FileConfiguration checkData, World world) {
+        this.name = courseName;
+        this.version = VERSIONS.incrementAndGet();
+
+        String path = courseName + ".";
+        this.creator = courseData.getString(path + "Creator");
+        this.world = courseData.getString(path + "World");
+        this.mode = courseData.getString(path + "Mode", "NONE");
+        this.parkourKit = courseData.getString(path + "ParkourKit");
+        this.linkedCourse = courseData.getString(path + "LinkedCourse");
+        this.linkedLobby = courseData.getString(path + "LinkedLobby");
+        this.finished = courseData.getBoolean(path + "Finished");
+        this.minimumLevel = courseData.getInt(path + "MinimumLevel");
+        this.maximumDeaths = courseData.getInt(path + "MaxDeaths", 0);
+        this.maximumTime = courseData.getInt(path + "MaxTime", 0);
+
+        this.commandsPrize = courseData.contains(path + "Prize.CMD")
+                ? Collections.unmodifiableList(courseData.getStringList(path + "Prize.CMD")) : null;
+        this.materialPrize = lookupMaterial(courseData.getString(path + "Prize.Material"));
+        this.materialPrizeAmount = courseData.getInt(path + "Prize.Amount", 0);
+        this.xpPrize = courseData.getInt(path + "Prize.XP");
+        this.rewardLevel = courseData.getInt(path + "Level");
+        this.rewardLevelAdd = courseData.getInt(path + "LevelAdd");
+        this.rewardOnce = courseData.getBoolean(path + "RewardOnce");
+        this.rewardDelay = courseData.getInt(path + "RewardDelay", 0);
+        this.rewardParkoins = courseData.getInt(path + "Parkoins");
+
+        this.joinItem = lookupMaterial(courseData.getString(path + "JoinItemMaterial"));
+        this.joinItemAmount = courseData.getInt(path + "JoinItemAmount", 1);
+        this.joinItemLabel = courseData.getString(path + "JoinItemLabel");
+
+        this.checkpointAmount = courseData.getInt(path + "Points");
+        // one past the last checkpoint, which has no next pressure plate
+        this.checkpoints = new Checkpoint[checkpointAmount + 1];
+        for (int point = 0; point < checkpoints.length; point++) {
+            checkpoints[point] = createCheckpoint(world, courseData.getConfigurationSection(path + point),
+                    checkData.getConfigurationSection(path + (point + 1)));
+        }
+    }
+
+    private Checkpoint createCheckpoint(World world, ConfigurationSection location, ConfigurationSection nextPressurePlate) {
+        if (location == null) {
+            location = new MemoryConfiguration();
+        }
+        if (nextPressurePlate == null) {
+            nextPressurePlate = new MemoryConfiguration();
+        }
+
+        return new Checkpoint(world, this.world, location.getDouble("X"), location.getDouble("Y"), location.getDouble("Z"),
+                (float) location.getDouble("Yaw"), (float) location.getDouble("Pitch"),
+                nextPressurePlate.getDouble("X"), nextPressurePlate.getDouble("Y"), nextPressurePlate.getDouble("Z"));
+    }
+
+    private static Material lookupMaterial(String materialName) {
+        return materialName == null ? null : Utils.lookupMaterial(materialName);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public String getCreator() {
+        return creator;
+    }
+
+    public String getWorld() {
+        return world;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public String getParkourKit() {
+        return parkourKit != null ? parkourKit : Constants.DEFAULT;
+    }
+
+    public boolean hasParkourKit() {
+        return parkourKit != null;
+    }
+
+    public String getLinkedCourse() {
+        return linkedCourse;
+    }
+
+    public String getLinkedLobby() {
+        return linkedLobby;
+    }
+
+    public boolean getFinished() {
+        return finished;
+    }
+
+    public int getMinimumLevel() {
+        return minimumLevel;
+    }
+
+    public int getMaximumDeaths() {
+        return maximumDeaths;
+    }
+
+    public int getMaximumTime() {
+        return maximumTime;
+    }
+
+    public List<String> getCommandsPrize() {
+        return commandsPrize != null ? commandsPrize : Collections.emptyList();
+    }
+
+    public boolean hasCommandPrize() {
+        return commandsPrize != null;
+    }
+
+    public Material getMaterialPrize() {
+        return materialPrize;
+    }
+
+    public int getMaterialPrizeAmount() {
+        return materialPrizeAmount;
+    }
+
+    public int getXPPrize() {
+        return xpPrize;
+    }
+
+    public int getRewardLevel() {
+        return rewardLevel;
+    }
+
+    public int getRewardLevelAdd() {
+        return rewardLevelAdd;
+    }
+
+    public boolean getRewardOnce() {
+        return rewardOnce;
+    }
+
+    public int getRewardDelay() {
+        return rewardDelay;
+    }
+
+    public int getRewardParkoins() {
+        return rewardParkoins;
+    }
+
+    public Material getJoinItem() {
+        return joinItem;
+    }
+
+    public int getJoinItemAmount() {
+        return joinItemAmount;
+    }
+
+    public String getJoinItemLabel() {
+        return joinItemLabel;
+    }
+
+    public int getCheckpointAmount() {
+        return checkpointAmount;
+    }
+
+    /**
+     * Get the checkpoint, which holds where the player is returned to and the pressure plate of the next checkpoint.
+     * A checkpoint beyond the last is treated as the last, in case checkpoints were deleted during a session.
+     *
+     * @param point checkpoint number, 0 being the start of the course
+     * @return checkpoint
+     */
+    public Checkpoint getCheckpoint(int point) {
+        return checkpoints[Math.max(0, Math.min(point, checkpoints.length - 1))];
+    }
+}
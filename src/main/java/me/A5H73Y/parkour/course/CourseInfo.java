@@ -1,28 +1,162 @@
 package me.A5H73Y.parkour.course;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import me.A5H73Y.parkour.Parkour;
+import me.A5H73Y.parkour.manager.DatabaseQueryManager;
 import me.A5H73Y.parkour.other.Constants;
+import me.A5H73Y.parkour.player.PlayerProfile;
 import me.A5H73Y.parkour.utilities.DatabaseMethods;
 import me.A5H73Y.parkour.utilities.Static;
 import me.A5H73Y.parkour.utilities.Utils;
+import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
-import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.World;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.Player;
 
 public class CourseInfo {
 
+    private static final Map<String, CourseBlueprint> blueprints = new ConcurrentHashMap<>();
+    private static volatile CourseList courseList;
+
     /**
      * Get list of all Parkour course names.
+     * The order of the list is used for numbering the courses.
      *
-     * @return List Parkour course names
+     * @return unmodifiable List Parkour course names
      */
     public static List<String> getAllCourses() {
-        return Parkour.getParkourConfig().getCourseData().getStringList("Courses");
+        return getCourseList().names;
+    }
+
+    /**
+     * Check if a course with the name exists.
+     *
+     * @param courseName lowercase course name
+     * @return course exists
+     */
+    public static boolean hasCourse(String courseName) {
+        return getCourseList().index.contains(courseName);
+    }
+
+    /**
+     * Add the course to the list of courses, keeping the list sorted.
+     *
+     * @param courseName
+     */
+    public static synchronized void addCourse(String courseName) {
+        List<String> names = new ArrayList<>(getAllCourses());
+        names.add(courseName.toLowerCase());
+        Collections.sort(names);
+        setCourseList(names);
+    }
+
+    /**
+     * Remove the course from the list of courses.
+     *
+     * @param courseName
+     */
+    public static synchronized void removeCourse(String courseName) {
+        List<String> names = new ArrayList<>(getAllCourses());
+        names.remove(courseName.toLowerCase());
+        setCourseList(names);
+    }
+
+    private static CourseList getCourseList() {
+        CourseList current = courseList;
+        if (current == null) {
+            current = new CourseList(Parkour.getParkourConfig().getCourseData().getStringList("Courses"));
+            courseList = current;
+        }
+        return current;
+    }
+
+    private static void setCourseList(List<String> names) {
+        Parkour.getParkourConfig().getCourseData().set("Courses", names);
+        courseList = new CourseList(names);
+    }
+
+    /**
+     * Get the blueprint of every setting of the course.
+     * The blueprint is built the first time it's needed, and replaced whenever the course is changed.
+     *
+     * @param courseName
+     * @return course blueprint
+     */
+    public static CourseBlueprint getBlueprint(String courseName) {
+        courseName = courseName.toLowerCase();
+        CourseBlueprint blueprint = blueprints.get(courseName);
+
+        if (blueprint == null) {
+            blueprint = buildBlueprint(courseName);
+            // only remember the courses that exist
+            if (Parkour.getParkourConfig().getCourseData().contains(courseName)) {
+                blueprints.putIfAbsent(courseName, blueprint);
+            }
+        }
+        return blueprint;
+    }
+
+    /**
+     * Replace the blueprint of the course with one built from its current settings.
+     * Must be called after any change to the course's settings or checkpoints.
+     *
+     * @param courseName
+     */
+    public static void refreshBlueprint(String courseName) {
+        courseName = courseName.toLowerCase();
+
+        if (Parkour.getParkourConfig().getCourseData().contains(courseName)) {
+            blueprints.put(courseName, buildBlueprint(courseName));
+        } else {
+            blueprints.remove(courseName);
+        }
+    }
+
+    /**
+     * Forget the list of courses and every blueprint, they will be read again from the files when next needed.
+     */
+    public static void clearCache() {
+        courseList = null;
+        blueprints.clear();
+    }
+
+    /**
+     * Rebuild the blueprints of the courses in the world, when it has been loaded or unloaded.
+     * The checkpoints of a blueprint hold the world it was built with.
+     *
+     * @param worldName
+     * @param world the loaded world, or null if it's being unloaded
+     */
+    public static void refreshWorld(String worldName, World world) {
+        for (CourseBlueprint blueprint : blueprints.values()) {
+            if (worldName.equals(blueprint.getWorld())) {
+                blueprints.put(blueprint.getName(), buildBlueprint(blueprint.getName(), world));
+            }
+        }
+    }
+
+    private static CourseBlueprint buildBlueprint(String courseName) {
+        String worldName = Parkour.getParkourConfig().getCourseData().getString(courseName + ".World");
+        return buildBlueprint(courseName, worldName != null ? Bukkit.getWorld(worldName) : null);
+    }
+
+    private static CourseBlueprint buildBlueprint(String courseName, World world) {
+        return new CourseBlueprint(courseName,
+                Parkour.getParkourConfig().getCourseData(), Parkour.getParkourConfig().getCheckData(), world);
+    }
+
+    private static void saveCourse(String courseName) {
+        Parkour.getParkourConfig().saveCourses();
+        refreshBlueprint(courseName);
     }
 
     /**
@@ -33,8 +167,7 @@ public class CourseInfo {
      * @return linkedCourse
      */
     public static String getLinkedCourse(String courseName) {
-        String linkedCourse = Parkour.getParkourConfig().getCourseData()
-                .getString(courseName.toLowerCase() + ".LinkedCourse");
+        String linkedCourse = getBlueprint(courseName).getLinkedCourse();
 
         if (CourseMethods.exist(linkedCourse)) {
             return linkedCourse;
@@ -50,7 +183,7 @@ public class CourseInfo {
      * @return if linked course is found
      */
     public static boolean hasLinkedCourse(String courseName) {
-        return Parkour.getParkourConfig().getCourseData().contains(courseName.toLowerCase() + ".LinkedCourse");
+        return getBlueprint(courseName).getLinkedCourse() != null;
     }
 
     /**
@@ -62,7 +195,7 @@ public class CourseInfo {
     public static void setLinkedCourse(String courseName, String linkedCourse) {
         Parkour.getParkourConfig().getCourseData()
                 .set(courseName.toLowerCase() + ".LinkedCourse", linkedCourse.toLowerCase());
-        Parkour.getParkourConfig().saveCourses();
+        saveCourse(courseName);
     }
 
     /**
@@ -73,8 +206,7 @@ public class CourseInfo {
      * @return linkedLobby
      */
     public static String getLinkedLobby(String courseName) {
-        String linkedLobby = Parkour.getParkourConfig().getCourseData()
-                .getString(courseName.toLowerCase() + ".LinkedLobby");
+        String linkedLobby = getBlueprint(courseName).getLinkedLobby();
 
         if (linkedLobby != null && LobbyMethods.getCustomLobbies().contains(linkedLobby)) {
             return linkedLobby;
@@ -90,7 +222,7 @@ public class CourseInfo {
      * @return if linked lobby is found
      */
     public static boolean hasLinkedLobby(String courseName) {
-        return Parkour.getParkourConfig().getCourseData().contains(courseName.toLowerCase() + ".LinkedLobby");
+        return getBlueprint(courseName).getLinkedLobby() != null;
     }
 
     /**
@@ -101,7 +233,7 @@ public class CourseInfo {
      */
     public static void setLinkedLobby(String courseName, String lobbyName) {
         Parkour.getParkourConfig().getCourseData().set(courseName.toLowerCase() + ".LinkedLobby", lobbyName);
-        Parkour.getParkourConfig().saveCourses();
+        saveCourse(courseName);
     }
 
     /**
@@ -111,7 +243,7 @@ public class CourseInfo {
      * @return mode
      */
     public static String getMode(String courseName) {
-        return Parkour.getParkourConfig().getCourseData().getString(courseName.toLowerCase() + ".Mode", "NONE");
+        return getBlueprint(courseName).getMode();
     }
 
     /**
@@ -122,7 +254,7 @@ public class CourseInfo {
      */
     public static void setMode(String courseName, String mode) {
         Parkour.getParkourConfig().getCourseData().set(courseName.toLowerCase() + ".Mode", mode);
-        Parkour.getParkourConfig().saveCourses();
+        saveCourse(courseName);
     }
 
     /**
@@ -132,7 +264,7 @@ public class CourseInfo {
      * @return
      */
     public static int getCheckpointAmount(String courseName) {
-        return Parkour.getParkourConfig().getCourseData().getInt(courseName.toLowerCase() + ".Points");
+        return getBlueprint(courseName).getCheckpointAmount();
     }
 
     /**
@@ -142,7 +274,7 @@ public class CourseInfo {
      * @return
      */
     public static String getCreator(String courseName) {
-        return Parkour.getParkourConfig().getCourseData().getString(courseName.toLowerCase() + ".Creator");
+        return getBlueprint(courseName).getCreator();
     }
 
     /**
@@ -153,7 +285,7 @@ public class CourseInfo {
      */
     public static void setCreator(String courseName, String playerName) {
         Parkour.getParkourConfig().getCourseData().set(courseName.toLowerCase() + ".Creator", playerName);
-        Parkour.getParkourConfig().saveCourses();
+        saveCourse(courseName);
     }
 
     /**
@@ -163,7 +295,7 @@ public class CourseInfo {
      * @return
      */
     public static int getMinimumLevel(String courseName) {
-        return Parkour.getParkourConfig().getCourseData().getInt(courseName.toLowerCase() + ".MinimumLevel");
+        return getBlueprint(courseName).getMinimumLevel();
     }
 
     /**
@@ -174,7 +306,7 @@ public class CourseInfo {
      */
     public static void setMinimumLevel(String courseName, int level) {
         Parkour.getParkourConfig().getCourseData().set(courseName.toLowerCase() + ".MinimumLevel", level);
-        Parkour.getParkourConfig().saveCourses();
+        saveCourse(courseName);
     }
 
     /**
@@ -184,7 +316,7 @@ public class CourseInfo {
      * @return
      */
     public static String getParkourKit(String courseName) {
-        return Parkour.getParkourConfig().getCourseData().getString(courseName.toLowerCase() + ".ParkourKit", Constants.DEFAULT);
+        return getBlueprint(courseName).getParkourKit();
     }
 
     /**
@@ -194,7 +326,7 @@ public class CourseInfo {
      * @return
      */
     public static boolean hasParkourKit(String courseName) {
-        return Parkour.getParkourConfig().getCourseData().contains(courseName.toLowerCase() + ".ParkourKit");
+        return getBlueprint(courseName).hasParkourKit();
     }
 
     /**
@@ -205,7 +337,7 @@ public class CourseInfo {
      */
     public static void setParkourKit(String courseName, String parkourKitName) {
         Parkour.getParkourConfig().getCourseData().set(courseName.toLowerCase() + ".ParkourKit", parkourKitName.toLowerCase());
-        Parkour.getParkourConfig().saveCourses();
+        saveCourse(courseName);
     }
 
     /**
@@ -215,7 +347,7 @@ public class CourseInfo {
      * @return death count
      */
     public static int getMaximumDeaths(String courseName) {
-        return Parkour.getParkourConfig().getCourseData().getInt(courseName.toLowerCase() + ".MaxDeaths", 0);
+        return getBlueprint(courseName).getMaximumDeaths();
     }
 
     /**
@@ -225,7 +357,7 @@ public class CourseInfo {
      * @return seconds
      */
     public static int getMaximumTime(String courseName) {
-        return Parkour.getParkourConfig().getCourseData().getInt(courseName.toLowerCase() + ".MaxTime", 0);
+        return getBlueprint(courseName).getMaximumTime();
     }
 
     /**
@@ -236,7 +368,7 @@ public class CourseInfo {
      */
     public static void setMaximumDeaths(String courseName, int amount) {
         Parkour.getParkourConfig().getCourseData().set(courseName.toLowerCase() + ".MaxDeaths", amount);
-        Parkour.getParkourConfig().saveCourses();
+        saveCourse(courseName);
     }
 
     /**
@@ -247,7 +379,7 @@ public class CourseInfo {
      */
     public static void setMaximumTime(String courseName, int seconds) {
         Parkour.getParkourConfig().getCourseData().set(courseName.toLowerCase() + ".MaxTime", seconds);
-        Parkour.getParkourConfig().saveCourses();
+        saveCourse(courseName);
     }
 
     /**
@@ -257,7 +389,7 @@ public class CourseInfo {
      * @return boolean
      */
     public static boolean getFinished(String courseName) {
-        return Parkour.getParkourConfig().getCourseData().getBoolean(courseName.toLowerCase() + ".Finished");
+        return getBlueprint(courseName).getFinished();
     }
 
     /**
@@ -268,7 +400,7 @@ public class CourseInfo {
      */
     public static void setFinished(String courseName, boolean finished) {
         Parkour.getParkourConfig().getCourseData().set(courseName.toLowerCase() + ".Finished", finished);
-        Parkour.getParkourConfig().saveCourses();
+        saveCourse(courseName);
     }
 
     /**
@@ -278,7 +410,7 @@ public class CourseInfo {
      * @return
      */
     public static List<String> getCommandsPrize(String courseName) {
-        return Parkour.getParkourConfig().getCourseData().getStringList(courseName.toLowerCase() + ".Prize.CMD");
+        return getBlueprint(courseName).getCommandsPrize();
     }
 
     /**
@@ -288,7 +420,7 @@ public class CourseInfo {
      * @return
      */
     public static boolean hasCommandPrize(String courseName) {
-        return Parkour.getParkourConfig().getCourseData().contains(courseName.toLowerCase() + ".Prize.CMD");
+        return getBlueprint(courseName).hasCommandPrize();
     }
 
     /**
@@ -298,11 +430,11 @@ public class CourseInfo {
      * @param command
      */
     public static void addCommandPrize(String courseName, String command) {
-        List<String> commands = getCommandsPrize(courseName);
+        List<String> commands = Parkour.getParkourConfig().getCourseData().getStringList(courseName.toLowerCase() + ".Prize.CMD");
         commands.add(command);
 
         Parkour.getParkourConfig().getCourseData().set(courseName.toLowerCase() + ".Prize.CMD", commands);
-        Parkour.getParkourConfig().saveCourses();
+        saveCourse(courseName);
     }
 
     /**
@@ -315,7 +447,7 @@ public class CourseInfo {
     public static void setMaterialPrize(String courseName, String material, int amount) {
         Parkour.getParkourConfig().getCourseData().set(courseName.toLowerCase() + ".Prize.Material", material);
         Parkour.getParkourConfig().getCourseData().set(courseName.toLowerCase() + ".Prize.Amount", amount);
-        Parkour.getParkourConfig().saveCourses();
+        saveCourse(courseName);
     }
 
     /**
@@ -325,7 +457,7 @@ public class CourseInfo {
      * @return
      */
     public static int getXPPrize(String courseName) {
-        return Parkour.getParkourConfig().getCourseData().getInt(courseName.toLowerCase() + ".Prize.XP");
+        return getBlueprint(courseName).getXPPrize();
     }
 
     /**
@@ -336,7 +468,7 @@ public class CourseInfo {
      */
     public static void setXPPrize(String courseName, int amount) {
         Parkour.getParkourConfig().getCourseData().set(courseName.toLowerCase() + ".Prize.XP", amount);
-        Parkour.getParkourConfig().saveCourses();
+        saveCourse(courseName);
     }
 
     /**
@@ -368,7 +500,7 @@ public class CourseInfo {
      * @return
      */
     public static int getRewardLevel(String courseName) {
-        return Parkour.getParkourConfig().getCourseData().getInt(courseName.toLowerCase() + ".Level");
+        return getBlueprint(courseName).getRewardLevel();
     }
 
     /**
@@ -379,7 +511,7 @@ public class CourseInfo {
      */
     public static void setRewardLevel(String courseName, int level) {
         Parkour.getParkourConfig().getCourseData().set(courseName.toLowerCase() + ".Level", level);
-        Parkour.getParkourConfig().saveCourses();
+        saveCourse(courseName);
     }
 
     /**
@@ -389,7 +521,7 @@ public class CourseInfo {
      * @return
      */
     public static int getRewardLevelAdd(String courseName) {
-        return Parkour.getParkourConfig().getCourseData().getInt(courseName.toLowerCase() + ".LevelAdd");
+        return getBlueprint(courseName).getRewardLevelAdd();
     }
 
     /**
@@ -400,7 +532,7 @@ public class CourseInfo {
      */
     public static void setRewardLevelAdd(String courseName, String amount) {
         Parkour.getParkourConfig().getCourseData().set(courseName.toLowerCase() + ".LevelAdd", Integer.parseInt(amount));
-        Parkour.getParkourConfig().saveCourses();
+        saveCourse(courseName);
     }
 
     /**
@@ -410,7 +542,7 @@ public class CourseInfo {
      * @return
      */
     public static boolean getRewardOnce(String courseName) {
-        return Parkour.getParkourConfig().getCourseData().getBoolean(courseName.toLowerCase() + ".RewardOnce");
+        return getBlueprint(courseName).getRewardOnce();
     }
 
     /**
@@ -421,7 +553,7 @@ public class CourseInfo {
      */
     public static void setRewardOnce(String courseName, boolean enabled) {
         Parkour.getParkourConfig().getCourseData().set(courseName.toLowerCase() + ".RewardOnce", enabled);
-        Parkour.getParkourConfig().saveCourses();
+        saveCourse(courseName);
     }
 
     /**
@@ -450,43 +582,43 @@ public class CourseInfo {
     }
 
     public static int getRewardDelay(String courseName) {
-        return Parkour.getParkourConfig().getCourseData().getInt(courseName.toLowerCase() + ".RewardDelay", 0);
+        return getBlueprint(courseName).getRewardDelay();
     }
 
     public static void setRewardDelay(String courseName, int rewardDelay) {
         Parkour.getParkourConfig().getCourseData().set(courseName.toLowerCase() + ".RewardDelay", rewardDelay);
-        Parkour.getParkourConfig().saveCourses();
+        saveCourse(courseName);
     }
 
     public static int getRewardParkoins(String courseName) {
-        return Parkour.getParkourConfig().getCourseData().getInt(courseName.toLowerCase() + ".Parkoins");
+        return getBlueprint(courseName).getRewardParkoins();
     }
 
     public static void setRewardParkoins(String courseName, int parkoins) {
         Parkour.getParkourConfig().getCourseData().set(courseName.toLowerCase() + ".Parkoins", parkoins);
-        Parkour.getParkourConfig().saveCourses();
+        saveCourse(courseName);
     }
 
     public static Material getJoinItem(String courseName) {
-        return Utils.lookupMaterial(Parkour.getParkourConfig().getCourseData().getString(courseName.toLowerCase() + ".JoinItemMaterial"));
+        return getBlueprint(courseName).getJoinItem();
     }
 
     public static int getJoinItemAmount(String courseName) {
-        return Parkour.getParkourConfig().getCourseData().getInt(courseName.toLowerCase() + ".JoinItemAmount", 1);
+        return getBlueprint(courseName).getJoinItemAmount();
     }
 
     public static String getJoinItemLabel(String courseName) {
-        return Parkour.getParkourConfig().getCourseData().getString(courseName.toLowerCase() + ".JoinItemLabel");
+        return getBlueprint(courseName).getJoinItemLabel();
     }
 
     public static boolean hasJoinItem(String courseName) {
-        return Parkour.getParkourConfig().getCourseData().contains(courseName.toLowerCase() + ".JoinItemMaterial");
+        return getBlueprint(courseName).getJoinItem() != null;
     }
 
     public static void setJoinItem(String courseName, String material, int amount) {
         Parkour.getParkourConfig().getCourseData().set(courseName.toLowerCase() + ".JoinItemMaterial", material.toUpperCase());
         Parkour.getParkourConfig().getCourseData().set(courseName.toLowerCase() + ".JoinItemAmount", amount);
-        Parkour.getParkourConfig().saveCourses();
+        saveCourse(courseName);
     }
 
 
@@ -499,55 +631,43 @@ public class CourseInfo {
     }
 
     public static String getWorld(String courseName) {
-        return Parkour.getParkourConfig().getCourseData().getString(courseName.toLowerCase() + ".World");
+        return getBlueprint(courseName).getWorld();
     }
 
     public static Material getMaterialPrize(String courseName) {
-        return Utils.lookupMaterial(Parkour.getParkourConfig().getCourseData().getString(courseName.toLowerCase() + ".Prize.Material"));
+        return getBlueprint(courseName).getMaterialPrize();
     }
 
     public static int getMaterialPrizeAmount(String courseName) {
-        return Parkour.getParkourConfig().getCourseData().getInt(courseName.toLowerCase() + ".Prize.Amount", 0);
+        return getBlueprint(courseName).getMaterialPrizeAmount();
     }
 
     public static boolean hasMaterialPrize(String courseName) {
-        return Parkour.getParkourConfig().getCourseData().contains(courseName.toLowerCase() + ".Prize.Material");
+        return getBlueprint(courseName).getMaterialPrize() != null;
     }
 
     public static void resetLinks(String courseName) {
         Parkour.getParkourConfig().getCourseData().set(courseName.toLowerCase() + ".LinkedLobby", null);
         Parkour.getParkourConfig().getCourseData().set(courseName.toLowerCase() + ".LinkedCourse", null);
-        Parkour.getParkourConfig().saveCourses();
+        saveCourse(courseName);
     }
 
     public static void deleteCourse(String courseName) {
         courseName = courseName.toLowerCase();
 
-        List<String> courseList = getAllCourses();
-        courseList.remove(courseName);
+        removeCourse(courseName);
         Parkour.getParkourConfig().getCourseData().set(courseName, null);
-        Parkour.getParkourConfig().getCourseData().set("Courses", courseList);
         Parkour.getParkourConfig().saveCourses();
+        blueprints.remove(courseName);
         DatabaseMethods.deleteCourseAndReferences(courseName);
 
         if (Parkour.getPlugin().getConfig().getBoolean("OnFinish.SaveUserCompletedCourses")) {
-            FileConfiguration userConfig = Parkour.getParkourConfig().getUsersData();
-            ConfigurationSection playersSection = userConfig.getConfigurationSection("PlayerInfo");
-
-            if (playersSection != null) {
-                Set<String> playerNames = playersSection.getKeys(false);
-
-                for (String playerName : playerNames) {
-                    String completedPath = "PlayerInfo." + playerName + ".Completed";
-                    List<String> completedCourses = userConfig.getStringList(completedPath);
-
-                    if (completedCourses.contains(completedPath)) {
-                        completedCourses.remove(courseName);
-                        userConfig.set(completedPath, completedCourses);
-                    }
+            // only the players currently loaded, the files of every other player aren't read
+            for (PlayerProfile profile : Parkour.getParkourConfig().getLoadedProfiles()) {
+                if (profile.removeCompletedCourse(courseName)) {
+                    Parkour.getParkourConfig().savePlayerProfile(Bukkit.getOfflinePlayer(profile.getPlayerId()));
                 }
             }
-            Parkour.getParkourConfig().saveUsers();
         }
     }
 
@@ -555,7 +675,7 @@ public class CourseInfo {
         courseName = courseName.toLowerCase();
 
         Parkour.getParkourConfig().getCourseData().set(courseName + ".Prize", null);
-        Parkour.getParkourConfig().saveCourses();
+        saveCourse(courseName);
     }
 
     /**
@@ -657,17 +777,36 @@ public class CourseInfo {
             }
         }
 
-        double likePercent = Math.round(DatabaseMethods.getVotePercent(courseName));
+        final String course = courseName;
 
-        if (likePercent > 0) {
-            player.sendMessage("Liked: " + aqua + likePercent + "%");
-        }
+        DatabaseQueryManager.getInstance().thenSync(DatabaseMethods.getVotePercentAsync(course), votePercent -> {
+            double likePercent = Math.round(votePercent);
+
+            if (likePercent > 0) {
+                player.sendMessage("Liked: " + aqua + likePercent + "%");
+            }
 
-        if (hasRewardDelay(courseName) && Parkour.getSettings().isDisplayPrizeCooldown()) {
-            player.sendMessage("Reward Cooldown (days): " + aqua + getRewardDelay(courseName));
-            if (!Utils.hasPrizeCooldownDurationPassed(player, courseName, false)) {
-                player.sendMessage("Cooldown Remaining: " + aqua + Utils.getTimeRemaining(player, courseName));
+            if (hasRewardDelay(course) && Parkour.getSettings().isDisplayPrizeCooldown()) {
+                player.sendMessage("Reward Cooldown (days): " + aqua + getRewardDelay(course));
+                if (!Utils.hasPrizeCooldownDurationPassed(player, course, false)) {
+                    player.sendMessage("Cooldown Remaining: " + aqua + Utils.getTimeRemaining(player, course));
+                }
             }
+        });
+    }
+
+    /**
+     * The course names in order, with an index for checking if a course exists.
+     * Replaced rather than modified, so it can be read from any thread.
+     */
+    private static class CourseList {
+
+        private final List<String> names;
+        private final Set<String> index;
+
+        private CourseList(List<String> names) {
+            this.names = Collections.unmodifiableList(new ArrayList<>(names));
+            this.index = Collections.unmodifiableSet(new HashSet<>(names));
         }
     }
 }
@@ -1,9 +1,9 @@
 package me.A5H73Y.parkour.course;
 
-import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import me.A5H73Y.parkour.Parkour;
@@ -12,7 +12,11 @@ import me.A5H73Y.parkour.conversation.LeaderboardConversation;
 import me.A5H73Y.parkour.conversation.ParkourModeConversation;
 import me.A5H73Y.parkour.enums.ParkourMode;
 import me.A5H73Y.parkour.kit.ParkourKit;
+import me.A5H73Y.parkour.manager.AutoStartManager;
 import me.A5H73Y.parkour.manager.ChallengeManager;
+import me.A5H73Y.parkour.manager.DatabaseQueryManager;
+import me.A5H73Y.parkour.manager.VoteManager;
+import me.A5H73Y.parkour.other.TimeObject;
 import me.A5H73Y.parkour.other.Validation;
 import me.A5H73Y.parkour.player.ParkourSession;
 import me.A5H73Y.parkour.player.PlayerInfo;
@@ -45,15 +49,7 @@ public class CourseMethods {
             return false;
         }
 
-        courseName = courseName.trim().toLowerCase();
-
-        for (String course : CourseInfo.getAllCourses()) {
-            if (courseName.equals(course)) {
-                return true;
-            }
-        }
-
-        return false;
+        return CourseInfo.hasCourse(courseName.trim().toLowerCase());
     }
 
     /**
@@ -71,19 +67,18 @@ public class CourseMethods {
 
         courseName = courseName.toLowerCase();
 
-        Checkpoint checkpoint = CheckpointMethods.getNextCheckpoint(courseName, 0);
         Course course = null;
 
         if (CourseInfo.hasParkourKit(courseName)) {
             String name = CourseInfo.getParkourKit(courseName);
             ParkourKit kit = ParkourKit.getParkourKit(name);
             if (kit != null) {
-                course = new Course(courseName, checkpoint, kit);
+                course = new Course(courseName, kit);
             }
         }
 
         if (course == null) {
-            course = new Course(courseName, checkpoint);
+            course = new Course(courseName);
         }
 
         return course;
@@ -98,12 +93,12 @@ public class CourseMethods {
      * @return Course
      */
     public static Course findByNumber(int courseNumber) {
-        if (courseNumber <= 0 || courseNumber > CourseInfo.getAllCourses().size()) {
+        List<String> courses = CourseInfo.getAllCourses();
+        if (courseNumber <= 0 || courseNumber > courses.size()) {
             return null;
         }
 
-        String courseName = CourseInfo.getAllCourses().get(courseNumber - 1);
-        return findByName(courseName);
+        return findByName(courses.get(courseNumber - 1));
     }
 
     /**
@@ -113,11 +108,8 @@ public class CourseMethods {
      * @return
      */
     public static Course findByPlayer(String playerName) {
-        if (!PlayerMethods.isPlaying(playerName)) {
-            return null;
-        }
-
-        return PlayerMethods.getPlaying().get(playerName).getCourse();
+        ParkourSession session = PlayerMethods.getParkourSession(playerName);
+        return session == null ? null : session.getCourse();
     }
 
     /**
@@ -151,11 +143,9 @@ public class CourseMethods {
         courseData.set(name + ".0.Yaw", location.getYaw());
         courseData.set(name + ".0.Pitch", location.getPitch());
 
-        List<String> courseList = CourseInfo.getAllCourses();
-        courseList.add(name);
-        Collections.sort(courseList);
-        courseData.set("Courses", courseList);
+        CourseInfo.addCourse(name);
         Parkour.getParkourConfig().saveCourses();
+        CourseInfo.refreshBlueprint(name);
 
         PlayerInfo.setSelected(player, name);
 
@@ -214,6 +204,8 @@ public class CourseMethods {
             return;
         }
 
+        // the checkpoints of the players on the course would be rebuilt from nothing
+        PlayerMethods.removePlayersFromCourse(courseName);
         CourseInfo.deleteCourse(courseName);
         player.sendMessage(Utils.getTranslation("Parkour.Delete").replace("%COURSE%", courseName));
     }
@@ -273,12 +265,19 @@ public class CourseMethods {
         sender.sendMessage(Static.getParkourString() + PlayerMethods.getPlaying().size() + " players using Parkour: ");
 
         String playingTemplate = Utils.getTranslation("Parkour.Playing", false);
-        for (Map.Entry<String, ParkourSession> entry : PlayerMethods.getPlaying().entrySet()) {
+        for (UUID playerId : PlayerMethods.getPlaying().getPlayerIds()) {
+            ParkourSession session = PlayerMethods.getPlaying().getSession(playerId);
+            String playerName = PlayerMethods.getPlaying().getPlayerName(playerId);
+
+            if (session == null || playerName == null) {
+                continue;
+            }
+
             sender.sendMessage(playingTemplate
-                    .replace("%PLAYER%", entry.getKey())
-                    .replace("%COURSE%", entry.getValue().getCourse().getName())
-                    .replace("%DEATHS%", String.valueOf(entry.getValue().getDeaths()))
-                    .replace("%TIME%", entry.getValue().displayTime()));
+                    .replace("%PLAYER%", playerName)
+                    .replace("%COURSE%", session.getCourse().getName())
+                    .replace("%DEATHS%", String.valueOf(session.getDeaths()))
+                    .replace("%TIME%", session.displayTime()));
         }
     }
 
@@ -330,6 +329,12 @@ public class CourseMethods {
             if (rewardLevel > 0) {
                 sb.append(ChatColor.GREEN).append(" (").append(rewardLevel).append(")");
             }
+            if (VoteManager.getInstance().isLoaded()) {
+                long likePercent = Math.round(VoteManager.getInstance().getVotePercent(courseName));
+                if (likePercent > 0) {
+                    sb.append(ChatColor.YELLOW).append(" (").append(likePercent).append("% liked)");
+                }
+            }
 
             sender.sendMessage(sb.toString());
         }
@@ -429,6 +434,8 @@ public class CourseMethods {
         Parkour.getParkourConfig().getCourseData().set(selected + ".0.Z", player.getLocation().getZ());
         Parkour.getParkourConfig().getCourseData().set(selected + ".0.Yaw", player.getLocation().getYaw());
         Parkour.getParkourConfig().getCourseData().set(selected + ".0.Pitch", player.getLocation().getPitch());
+        Parkour.getParkourConfig().saveCourses();
+        CourseInfo.refreshBlueprint(selected);
         Utils.logToFile(selected + " spawn was reset by " + player.getName());
         player.sendMessage(Static.getParkourString() + "Spawn for " + ChatColor.AQUA + selected + ChatColor.WHITE + " has been set to your position");
     }
@@ -449,13 +456,14 @@ public class CourseMethods {
         Block block = player.getLocation().getBlock();
         String coordinates = block.getX() + "-" + block.getY() + "-" + block.getZ();
 
-        if (Parkour.getParkourConfig().getCourseData().contains("CourseInfo.AutoStart." + coordinates)) {
+        if (getAutoStartCourse(block.getX(), block.getY(), block.getZ()) != null) {
             player.sendMessage(Static.getParkourString() + "There is already an AutoStart here!");
             return;
         }
 
         Parkour.getParkourConfig().getCourseData().set("CourseInfo.AutoStart." + coordinates, args[1].toLowerCase());
         Parkour.getParkourConfig().saveCourses();
+        AutoStartManager.getInstance().addAutoStart(block.getX(), block.getY(), block.getZ(), args[1].toLowerCase());
         player.sendMessage(Static.getParkourString() + "AutoStart for " + args[1] + " created!");
 
         block.setType(XMaterial.STONE_PRESSURE_PLATE.parseMaterial());
@@ -466,27 +474,15 @@ public class CourseMethods {
     /**
      * Find matching Course for AutoStart Location.
      * Triggered when the player walks on a pressure plate matching AutoStart.
-     * Look for matching config entry for location.
+     * Look up the block coordinates in the index of AutoStarts.
      *
-     * @param location
+     * @param blockX
+     * @param blockY
+     * @param blockZ
      * @return Course name
      */
-    public static String getAutoStartCourse(Location location) {
-        FileConfiguration config = Parkour.getParkourConfig().getCourseData();
-        String coordinates = location.getBlockX() + "-" + location.getBlockY() + "-" + location.getBlockZ();
-
-        ConfigurationSection entries = config.getConfigurationSection("CourseInfo.AutoStart");
-
-        if (entries != null) {
-            // Go through each entry to find matching coordinates, then return the course
-            for (String entry : entries.getKeys(false)) {
-                if (entry.equals(coordinates)) {
-                    return config.getString("CourseInfo.AutoStart." + entry);
-                }
-            }
-        }
-
-        return null;
+    public static String getAutoStartCourse(int blockX, int blockY, int blockZ) {
+        return AutoStartManager.getInstance().getAutoStartCourse(blockX, blockY, blockZ);
     }
 
     /**
@@ -498,6 +494,7 @@ public class CourseMethods {
     public static void deleteAutoStart(String coordinates, Player player) {
         Parkour.getParkourConfig().getCourseData().set("CourseInfo.AutoStart." + coordinates, null);
         Parkour.getParkourConfig().saveCourses();
+        AutoStartManager.getInstance().removeAutoStart(coordinates);
     }
 
     /**
@@ -820,6 +817,7 @@ public class CourseMethods {
         config.set(courseName + ".ParkourKit", null);
         config.set(courseName + ".Mode", null);
         Parkour.getParkourConfig().saveCourses();
+        CourseInfo.refreshBlueprint(courseName);
         DatabaseMethods.deleteCourseTimes(courseName);
     }
 
@@ -845,24 +843,31 @@ public class CourseMethods {
             return;
         }
 
-        if (!DatabaseMethods.hasPlayerCompleted(player.getName(), courseName)) {
-            player.sendMessage(Utils.getTranslation("Error.NotCompleted").replace("%COURSE%", courseName));
-            return;
-        }
-
-        if (DatabaseMethods.hasVoted(courseName, player.getName())) {
-            player.sendMessage(Utils.getTranslation("Error.AlreadyVoted").replace("%COURSE%", courseName));
-            return;
-        }
-
         boolean liked = args[0].equalsIgnoreCase("like");
-        DatabaseMethods.insertVote(courseName, player.getName(), liked);
+        CompletableFuture<Boolean> completed = DatabaseMethods.hasPlayerCompletedAsync(player.getName(), courseName);
+        CompletableFuture<Boolean> voted = DatabaseMethods.hasVotedAsync(courseName, player.getName());
+
+        DatabaseQueryManager.getInstance().thenSync(completed.thenCombine(voted, (hasCompleted, hasVoted) -> {
+            if (!hasCompleted) {
+                return Utils.getTranslation("Error.NotCompleted").replace("%COURSE%", courseName);
+            } else if (hasVoted) {
+                return Utils.getTranslation("Error.AlreadyVoted").replace("%COURSE%", courseName);
+            }
+            return null;
+        }), message -> {
+            if (message != null) {
+                player.sendMessage(message);
+                return;
+            }
 
-        if (liked) {
-            player.sendMessage(Static.getParkourString() + "You " + ChatColor.GREEN + "liked " + ChatColor.WHITE + courseName);
-        } else {
-            player.sendMessage(Static.getParkourString() + "You " + ChatColor.RED + "disliked " + ChatColor.WHITE + courseName);
-        }
+            DatabaseMethods.insertVote(courseName, player.getName(), liked);
+
+            if (liked) {
+                player.sendMessage(Static.getParkourString() + "You " + ChatColor.GREEN + "liked " + ChatColor.WHITE + courseName);
+            } else {
+                player.sendMessage(Static.getParkourString() + "You " + ChatColor.RED + "disliked " + ChatColor.WHITE + courseName);
+            }
+        });
     }
 
     /**
@@ -960,6 +965,7 @@ public class CourseMethods {
      * Retrieve and display Leaderboard for a course
      * Can be specified direction using appropriate commands,
      * or the Leaderboard conversation can be started, to specify what you want to view based on the options
+     * The player's position can also be displayed, along with the players either side of them
      *
      * @param args
      * @param player
@@ -978,6 +984,12 @@ public class CourseMethods {
             return;
         }
 
+        if (args.length >= 3 && args[2].equalsIgnoreCase("position")) {
+            DatabaseQueryManager.getInstance().thenSync(DatabaseMethods.getLeaderboardPositionAsync(player.getName(), args[1], 2),
+                    position -> Utils.displayLeaderboardPosition(player, position, args[1]));
+            return;
+        }
+
         int limit = 5;
         boolean personal = true;
 
@@ -997,11 +1009,12 @@ public class CourseMethods {
             limit = Integer.parseInt(args[2]);
         }
 
-        if (personal) {
-            Utils.displayLeaderboard(player, DatabaseMethods.getTopPlayerCourseResults(player.getName(), args[1], limit), args[1]);
-        } else {
-            Utils.displayLeaderboard(player, DatabaseMethods.getTopCourseResults(args[1], limit), args[1]);
-        }
+        CompletableFuture<List<TimeObject>> results = personal
+                ? DatabaseMethods.getTopPlayerCourseResultsAsync(player.getName(), args[1], limit)
+                : DatabaseMethods.getTopCourseResultsAsync(args[1], limit);
+
+        DatabaseQueryManager.getInstance().thenSync(results,
+                times -> Utils.displayLeaderboard(player, times, args[1]));
     }
 
     /**
@@ -58,7 +58,7 @@ public class LobbyMethods {
         }
 
         // if they are on a course, force them to leave, which will ultimately run this method again.
-        if (PlayerMethods.isPlaying(player.getName())) {
+        if (PlayerMethods.isPlaying(player)) {
             PlayerMethods.playerLeave(player);
             return;
         }
@@ -0,0 +1,9 @@
+package me.A5H73Y.parkour.enums;
+
+public enum FinishStage {
+    PLAYER,
+    STATISTICS,
+    RECORD,
+    PERSIST,
+    ANNOUNCE
+}
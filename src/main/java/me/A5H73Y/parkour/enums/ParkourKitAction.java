@@ -0,0 +1,13 @@
+package me.A5H73Y.parkour.enums;
+
+public enum ParkourKitAction {
+    DEATH,
+    FINISH,
+    CLIMB,
+    LAUNCH,
+    SPEED,
+    REPULSE,
+    NORUN,
+    NOPOTION,
+    BOUNCE
+}
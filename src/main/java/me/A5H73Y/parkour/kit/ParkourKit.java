@@ -9,6 +9,7 @@ import java.util.Map;
 import java.util.Set;
 
 import me.A5H73Y.parkour.Parkour;
+import me.A5H73Y.parkour.enums.ParkourKitAction;
 import me.A5H73Y.parkour.other.Validation;
 import me.A5H73Y.parkour.utilities.Utils;
 import org.bukkit.Material;
@@ -23,6 +24,10 @@ public class ParkourKit implements Serializable {
     // ParkourKit attributes
     private String name;
     private List<Material> materials = new ArrayList<>();
+    // indexed by Material ordinal, a null action means the material isn't part of the kit
+    private ParkourKitAction[] actions;
+    private double[] strengths;
+    private int[] durations;
 
     /**
      * ParkourKit
@@ -36,6 +41,19 @@ public class ParkourKit implements Serializable {
      */
     private ParkourKit(String name) {
         this.name = name;
+        loadActions();
+    }
+
+    /**
+     * Compile the kit's actions into tables indexed by Material ordinal.
+     * This means finding the action of a block is a single array read.
+     */
+    private void loadActions() {
+        int size = Material.values().length;
+        materials = new ArrayList<>();
+        actions = new ParkourKitAction[size];
+        strengths = new double[size];
+        durations = new int[size];
 
         Set<String> rawMaterials = getParkourKitData().getConfigurationSection("ParkourKit." + name).getKeys(false);
 
@@ -46,7 +64,8 @@ public class ParkourKit implements Serializable {
                 continue;
             }
 
-            String action = getParkourKitData().getString("ParkourKit." + name + "." + material.name() + ".Action").toLowerCase();
+            String path = "ParkourKit." + name + "." + material.name();
+            String action = getParkourKitData().getString(path + ".Action", "").toLowerCase();
 
             if (!VALID_ACTIONS.contains(action)) {
                 Utils.log("Action " + action + " in kit " + name + " is invalid.", 1);
@@ -55,6 +74,9 @@ public class ParkourKit implements Serializable {
 
             // we only add the material once we know it's valid
             materials.add(material);
+            actions[material.ordinal()] = ParkourKitAction.valueOf(action.toUpperCase());
+            strengths[material.ordinal()] = getParkourKitData().getDouble(path + ".Strength", 1);
+            durations[material.ordinal()] = getParkourKitData().getInt(path + ".Duration", 200);
         }
     }
 
@@ -93,11 +115,17 @@ public class ParkourKit implements Serializable {
 
     /**
      * Clear the ParkourKit cache
+     * If the kit still exists, it's compiled again so that courses using it see the changes.
      *
      * @param kitName
      */
     public static void clearMemory(String kitName) {
-        loaded.remove(kitName);
+        ParkourKit kit = loaded.remove(kitName);
+
+        if (kit != null && ParkourKitInfo.doesParkourKitExist(kitName)) {
+            kit.loadActions();
+            loaded.put(kitName, kit);
+        }
     }
 
     private static FileConfiguration getParkourKitData() {
@@ -117,14 +145,10 @@ public class ParkourKit implements Serializable {
      * Get the corresponding action for the material.
      *
      * @param material
-     * @return corresponding action for material
+     * @return corresponding action for material, null if the material isn't part of the kit
      */
-    public String getAction(Material material) {
-        if (!materials.contains(material)) {
-            return null;
-        }
-
-        return getParkourKitData().getString("ParkourKit." + name + "." + material.name() + ".Action").toLowerCase();
+    public ParkourKitAction getAction(Material material) {
+        return actions[material.ordinal()];
     }
 
     /**
@@ -133,26 +157,18 @@ public class ParkourKit implements Serializable {
      * @param material
      * @return strength double
      */
-    public Double getStrength(Material material) {
-        if (!materials.contains(material)) {
-            return 0.0;
-        }
-
-        return getParkourKitData().getDouble("ParkourKit." + name + "." + material.name() + ".Strength", 1);
+    public double getStrength(Material material) {
+        return strengths[material.ordinal()];
     }
 
     /**
      * Get Duration of the ParkourKit action.
      *
      * @param material
-     * @return
+     * @return duration in ticks
      */
-    public Integer getDuration(Material material) {
-        if (!materials.contains(material)) {
-            return 0;
-        }
-
-        return getParkourKitData().getInt("ParkourKit." + name + "." + material.name() + ".Duration", 200);
+    public int getDuration(Material material) {
+        return durations[material.ordinal()];
     }
 
     /**
@@ -33,7 +33,7 @@ public class BlockListener implements Listener {
     }
 
     private void handleBlockPlaceBreakEvent(Player player, Cancellable event) {
-        if (!PlayerMethods.isPlaying(player.getName())) {
+        if (!PlayerMethods.isPlaying(player)) {
             return;
         }
 
@@ -4,8 +4,8 @@ import java.util.List;
 
 import me.A5H73Y.parkour.Parkour;
 import me.A5H73Y.parkour.manager.QuestionManager;
-import me.A5H73Y.parkour.player.PlayerInfo;
 import me.A5H73Y.parkour.player.PlayerMethods;
+import me.A5H73Y.parkour.player.PlayerProfile;
 import me.A5H73Y.parkour.utilities.Static;
 import me.A5H73Y.parkour.utilities.Utils;
 import org.bukkit.ChatColor;
@@ -25,7 +25,10 @@ public class ChatListener implements Listener {
         }
 
         String finalMessage;
-        String rank = PlayerInfo.getRank(event.getPlayer());
+        // the chat thread only reads the profile loaded when the player joined
+        PlayerProfile profile = Parkour.getParkourConfig().getLoadedProfile(event.getPlayer().getUniqueId());
+        String rank = profile != null && profile.getRank() != null
+                ? profile.getRank() : Utils.getTranslation("Event.DefaultRank", false);
 
         // should we completely override the chat format
         if (Parkour.getSettings().isChatPrefixOverride()) {
@@ -64,7 +67,7 @@ public class ChatListener implements Listener {
             event.setCancelled(true);
         }
 
-        if (!isParkourCommand && PlayerMethods.isPlaying(player.getName())) {
+        if (!isParkourCommand && PlayerMethods.isPlaying(player)) {
             if (!Parkour.getSettings().isDisableCommandsOnCourse() ||
                     Utils.hasPermissionNoMessage(player, "Parkour.Admin")) {
                 return;
@@ -10,7 +10,6 @@ import me.A5H73Y.parkour.player.ParkourSession;
 import me.A5H73Y.parkour.player.PlayerMethods;
 import me.A5H73Y.parkour.utilities.Utils;
 import me.A5H73Y.parkour.utilities.XMaterial;
-import org.bukkit.Location;
 import org.bukkit.block.Block;
 import org.bukkit.block.BlockFace;
 import org.bukkit.block.Sign;
@@ -24,7 +23,7 @@ public class PlayerInteractListener implements Listener {
 
     @EventHandler
     public void onInventoryInteract(PlayerInteractEvent event) {
-        if (!PlayerMethods.isPlaying(event.getPlayer().getName())) {
+        if (!PlayerMethods.isPlaying(event.getPlayer())) {
             return;
         }
 
@@ -75,7 +74,9 @@ public class PlayerInteractListener implements Listener {
 
     @EventHandler
     public void onInventoryInteract_ParkourMode(PlayerInteractEvent event) {
-        if (!PlayerMethods.isPlaying(event.getPlayer().getName())) {
+        ParkourSession session = PlayerMethods.getParkourSession(event.getPlayer());
+
+        if (session == null) {
             return;
         }
 
@@ -84,7 +85,7 @@ public class PlayerInteractListener implements Listener {
             return;
         }
 
-        ParkourMode mode = PlayerMethods.getParkourSession(event.getPlayer().getName()).getMode();
+        ParkourMode mode = session.getMode();
 
         if (mode != ParkourMode.FREEDOM && mode != ParkourMode.ROCKETS) {
             return;
@@ -100,10 +101,10 @@ public class PlayerInteractListener implements Listener {
 
         if (mode == ParkourMode.FREEDOM && Utils.getMaterialInPlayersHand(player) == XMaterial.REDSTONE_TORCH.parseMaterial()) {
             if (event.getAction().equals(Action.RIGHT_CLICK_BLOCK) || event.getAction().equals(Action.RIGHT_CLICK_AIR)) {
-                PlayerMethods.getParkourSession(player.getName()).getCourse().setCheckpoint(CheckpointMethods.createCheckpointFromPlayerLocation(player));
+                session.getCourse().setCustomCheckpoint(CheckpointMethods.createCheckpointFromPlayerLocation(player));
                 player.sendMessage(Utils.getTranslation("Mode.Freedom.Save"));
             } else {
-                player.teleport(PlayerMethods.getParkourSession(player.getName()).getCourse().getCurrentCheckpoint().getLocation());
+                player.teleport(session.getCurrentCheckpoint().getLocation());
                 player.sendMessage(Utils.getTranslation("Mode.Freedom.Load"));
             }
 
@@ -118,8 +119,13 @@ public class PlayerInteractListener implements Listener {
 
     @EventHandler
     public void onCheckpointEvent(PlayerInteractEvent event) {
-        if (event.getAction() != Action.PHYSICAL ||
-                !PlayerMethods.isPlaying(event.getPlayer().getName())) {
+        if (event.getAction() != Action.PHYSICAL) {
+            return;
+        }
+
+        ParkourSession session = PlayerMethods.getParkourSession(event.getPlayer());
+
+        if (session == null) {
             return;
         }
 
@@ -132,24 +138,17 @@ public class PlayerInteractListener implements Listener {
             event.setCancelled(true);
         }
 
-        ParkourSession session = PlayerMethods.getParkourSession(event.getPlayer().getName());
         Course course = session.getCourse();
 
         if (session.getCheckpoint() == course.getCheckpoints()) {
             return;
         }
 
-        Checkpoint check = course.getCurrentCheckpoint();
-
-        if (check == null) {
-            return;
-        }
-
-        Location below = event.getClickedBlock().getRelative(BlockFace.DOWN).getLocation();
+        Checkpoint check = session.getCurrentCheckpoint();
+        Block clicked = event.getClickedBlock();
 
-        if (check.getNextCheckpointX() == below.getBlockX()
-                && check.getNextCheckpointY() == below.getBlockY()
-                && check.getNextCheckpointZ() == below.getBlockZ()) {
+        // the pressure plate sits on the block below it
+        if (check.isNextPressurePlate(clicked.getX(), clicked.getY() - 1, clicked.getZ())) {
             if (Parkour.getSettings().isFirstCheckAsStart() && session.getCheckpoint() == 0) {
                 session.resetTimeStarted();
                 Utils.sendActionBar(event.getPlayer(), Utils.getTranslation("Parkour.TimerStarted", false), true);
@@ -164,7 +163,7 @@ public class PlayerInteractListener implements Listener {
             return;
         }
 
-        if (PlayerMethods.isPlaying(event.getPlayer().getName())) {
+        if (PlayerMethods.isPlaying(event.getPlayer())) {
             return;
         }
 
@@ -172,7 +171,8 @@ public class PlayerInteractListener implements Listener {
             return;
         }
 
-        Block below = event.getClickedBlock().getRelative(BlockFace.DOWN);
+        Block clicked = event.getClickedBlock();
+        Block below = clicked.getRelative(BlockFace.DOWN);
 
         if (below.getType() != Parkour.getSettings().getAutoStartMaterial()) {
             return;
@@ -183,7 +183,7 @@ public class PlayerInteractListener implements Listener {
             return;
         }
 
-        String courseName = CourseMethods.getAutoStartCourse(event.getClickedBlock().getLocation());
+        String courseName = CourseMethods.getAutoStartCourse(clicked.getX(), clicked.getY(), clicked.getZ());
 
         if (courseName != null) {
             CourseMethods.joinCourseButDelayed(event.getPlayer(), courseName, Parkour.getSettings().getAutoStartDelay());
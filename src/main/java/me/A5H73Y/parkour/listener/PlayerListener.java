@@ -3,6 +3,10 @@ package me.A5H73Y.parkour.listener;
 import me.A5H73Y.parkour.Parkour;
 import me.A5H73Y.parkour.enums.ParkourMode;
 import me.A5H73Y.parkour.manager.ChallengeManager;
+import me.A5H73Y.parkour.manager.ParkourModeManager;
+import me.A5H73Y.parkour.manager.SessionClockManager;
+import me.A5H73Y.parkour.manager.VoteManager;
+import me.A5H73Y.parkour.player.ParkourSession;
 import me.A5H73Y.parkour.player.PlayerMethods;
 import me.A5H73Y.parkour.utilities.Static;
 import me.A5H73Y.parkour.utilities.Utils;
@@ -30,12 +34,12 @@ public class PlayerListener implements Listener {
     @EventHandler
     public void onEntityDamageByEntity(EntityDamageByEntityEvent event) {
         if (event.getEntity() instanceof Player) {
-            if (PlayerMethods.isPlaying(event.getEntity().getName())) {
+            if (PlayerMethods.isPlaying((Player) event.getEntity())) {
                 event.setCancelled(true);
             }
 
         } else if (event.getDamager() instanceof Player) {
-            if (PlayerMethods.isPlaying(event.getDamager().getName())) {
+            if (PlayerMethods.isPlaying((Player) event.getDamager())) {
                 if (Parkour.getSettings().isPreventAttackingEntities()) {
                     event.setCancelled(true);
                 }
@@ -46,7 +50,7 @@ public class PlayerListener implements Listener {
     @EventHandler
     public void onEntityCombust(EntityCombustEvent event) {
         if (event.getEntity() instanceof Player) {
-            if (PlayerMethods.isPlaying(event.getEntity().getName())) {
+            if (PlayerMethods.isPlaying((Player) event.getEntity())) {
                 event.setCancelled(true);
             }
         }
@@ -60,7 +64,7 @@ public class PlayerListener implements Listener {
 
         Player player = (Player) event.getEntity();
 
-        if (!PlayerMethods.isPlaying(player.getName())) {
+        if (!PlayerMethods.isPlaying(player)) {
             return;
         }
 
@@ -76,7 +80,7 @@ public class PlayerListener implements Listener {
             return;
         }
 
-        if (PlayerMethods.getParkourSession(player.getName()).getMode() == ParkourMode.DROPPER
+        if (PlayerMethods.getParkourSession(player).getMode() == ParkourMode.DROPPER
                 && event.getCause() == EntityDamageEvent.DamageCause.FALL) {
             event.setDamage(0);
             event.setCancelled(true);
@@ -97,14 +101,14 @@ public class PlayerListener implements Listener {
             return;
         }
 
-        if (PlayerMethods.isPlaying(event.getEntity().getName())) {
+        if (PlayerMethods.isPlaying((Player) event.getEntity())) {
             event.setCancelled(true);
         }
     }
 
     @EventHandler
     public void onPlayerDropItem(PlayerDropItemEvent event) {
-        if (!PlayerMethods.isPlaying(event.getPlayer().getName())) {
+        if (!PlayerMethods.isPlaying(event.getPlayer())) {
             return;
         }
 
@@ -115,7 +119,7 @@ public class PlayerListener implements Listener {
 
     @EventHandler
     public void onPlayerPickupItem(PlayerPickupItemEvent event) {
-        if (!PlayerMethods.isPlaying(event.getPlayer().getName())) {
+        if (!PlayerMethods.isPlaying(event.getPlayer())) {
             return;
         }
 
@@ -126,19 +130,25 @@ public class PlayerListener implements Listener {
 
     @EventHandler
     public void onPlayerJoin(PlayerJoinEvent event) {
+        Parkour.getParkourConfig().loadPlayerProfile(event.getPlayer());
+        VoteManager.getInstance().loadPlayerVotes(event.getPlayer().getName());
+
         if (Parkour.getSettings().isDisplayWelcomeMessage()) {
             event.getPlayer().sendMessage(Utils.getTranslation("Event.Join")
                     .replace("%VERSION%", Static.getVersion().toString()));
         }
 
-        if (!PlayerMethods.isPlaying(event.getPlayer().getName())) {
+        if (!PlayerMethods.isPlaying(event.getPlayer())) {
             return;
         }
 
+        ParkourSession session = PlayerMethods.getParkourSession(event.getPlayer());
         event.getPlayer().sendMessage(Utils.getTranslation("Parkour.Continue")
-                .replace("%COURSE%", PlayerMethods.getParkourSession(event.getPlayer().getName()).getCourse().getName()));
+                .replace("%COURSE%", session.getCourse().getName()));
 
         Parkour.getScoreboardManager().addScoreboard(event.getPlayer());
+        ParkourModeManager.getInstance().applyEffects(event.getPlayer(), session.getMode());
+        SessionClockManager.getInstance().addSession(event.getPlayer(), session);
 
         if (Parkour.getPlugin().getConfig().getBoolean("OnLeaveServer.TeleportToLastCheckpoint")) {
             PlayerMethods.playerDie(event.getPlayer());
@@ -151,7 +161,10 @@ public class PlayerListener implements Listener {
 
     @EventHandler
     public void onPlayerDisconnect(PlayerQuitEvent event) {
-        if (!PlayerMethods.isPlaying(event.getPlayer().getName())) {
+        VoteManager.getInstance().unloadPlayerVotes(event.getPlayer().getName());
+        Parkour.getParkourConfig().unloadPlayerProfile(event.getPlayer());
+
+        if (!PlayerMethods.isPlaying(event.getPlayer())) {
             return;
         }
 
@@ -162,7 +175,7 @@ public class PlayerListener implements Listener {
 
     @EventHandler
     public void onPlayerTeleport(PlayerTeleportEvent event) {
-        if (!PlayerMethods.isPlaying(event.getPlayer().getName())) {
+        if (!PlayerMethods.isPlaying(event.getPlayer())) {
             return;
         }
 
@@ -189,7 +202,7 @@ public class PlayerListener implements Listener {
 
     @EventHandler
     public void onPlayerToggleFlight(PlayerToggleFlightEvent event) {
-        if (!PlayerMethods.isPlaying(event.getPlayer().getName())) {
+        if (!PlayerMethods.isPlaying(event.getPlayer())) {
             return;
         }
 
@@ -206,7 +219,7 @@ public class PlayerListener implements Listener {
 
     @EventHandler
     public void onInventoryOpen(InventoryOpenEvent event) {
-        if (!PlayerMethods.isPlaying(event.getPlayer().getName())) {
+        if (!(event.getPlayer() instanceof Player) || !PlayerMethods.isPlaying((Player) event.getPlayer())) {
             return;
         }
 
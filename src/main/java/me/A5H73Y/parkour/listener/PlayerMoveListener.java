@@ -1,15 +1,15 @@
 package me.A5H73Y.parkour.listener;
 
-import java.util.Arrays;
-import java.util.List;
-
 import me.A5H73Y.parkour.Parkour;
+import me.A5H73Y.parkour.enums.ParkourKitAction;
 import me.A5H73Y.parkour.enums.ParkourMode;
 import me.A5H73Y.parkour.kit.ParkourKit;
 import me.A5H73Y.parkour.player.ParkourSession;
 import me.A5H73Y.parkour.player.PlayerMethods;
+import me.A5H73Y.parkour.utilities.Utils;
 import org.bukkit.Location;
 import org.bukkit.Material;
+import org.bukkit.block.Block;
 import org.bukkit.block.BlockFace;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -21,142 +21,153 @@ import org.bukkit.util.Vector;
 
 public class PlayerMoveListener implements Listener {
 
-    private static final List<BlockFace> BLOCK_FACES =
-            Arrays.asList(BlockFace.NORTH, BlockFace.EAST, BlockFace.SOUTH, BlockFace.WEST);
-
+    private static final BlockFace[] BLOCK_FACES =
+            {BlockFace.NORTH, BlockFace.EAST, BlockFace.SOUTH, BlockFace.WEST};
+
+    /**
+     * Handle every movement of a player on a course.
+     * The session is looked up once, and the checks of the block the player is in are only made
+     * once they move into a different block, or land on or leave the ground.
+     * The blocks beside the player are only looked up when they move into a different block,
+     * the actions of those blocks are applied on every movement.
+     * The effects of the ParkourModes are looked after by the ParkourModeManager.
+     */
     @EventHandler
-    public void onPlayerMove_Trails(PlayerMoveEvent event) {
-        if (!PlayerMethods.isPlaying(event.getPlayer().getName())) {
-            return;
-        }
+    public void onPlayerMove(PlayerMoveEvent event) {
+        Player player = event.getPlayer();
+        ParkourSession session = PlayerMethods.getParkourSession(player);
 
-        if (!Parkour.getSettings().isTrailsEnabled()) {
+        if (session == null) {
             return;
         }
 
-        Location loc = event.getPlayer().getLocation().add(0, 0.4, 0);
-        event.getPlayer().getWorld().spawnParticle(Parkour.getSettings().getTrailParticle(), loc, 1);
-    }
-
-    @EventHandler
-    public void onPlayerMove_ParkourMode(PlayerMoveEvent event) {
-        if (!PlayerMethods.isPlaying(event.getPlayer().getName())) {
+        // Only do fall checks if mode is not 'dropper' course
+        if (session.getMode() != ParkourMode.DROPPER &&
+                player.getFallDistance() > Parkour.getSettings().getMaxFallTicks()) {
+            PlayerMethods.playerDie(player);
             return;
         }
 
-        ParkourSession session = PlayerMethods.getParkourSession(event.getPlayer().getName());
+        Location to = event.getTo();
 
-        if (session == null || session.getMode() == ParkourMode.NONE) {
-            return;
+        if (Parkour.getSettings().isTrailsEnabled()) {
+            player.getWorld().spawnParticle(Parkour.getSettings().getTrailParticle(),
+                    to.getX(), to.getY() + 0.4, to.getZ(), 1);
         }
 
-        if (session.getMode() == ParkourMode.DRUNK) {
-            if (event.getPlayer().hasPotionEffect(PotionEffectType.CONFUSION)) {
-                return;
-            }
+        boolean groundChanged = session.updateOnGround(player.isOnGround());
+        boolean blockChanged = session.updateBlock(
+                Utils.packBlockCoordinates(to.getBlockX(), to.getBlockY(), to.getBlockZ()));
 
-            event.getPlayer().addPotionEffect(new PotionEffect(PotionEffectType.CONFUSION, 10000, 1));
+        if (blockChanged || groundChanged) {
+            Block block = to.getBlock();
 
-        } else if (session.getMode() == ParkourMode.DARKNESS) {
-            if (event.getPlayer().hasPotionEffect(PotionEffectType.BLINDNESS)) {
-                return;
+            if (block.isLiquid() && Parkour.getPlugin().getConfig().getBoolean("OnCourse.DieInLiquid")) {
+                PlayerMethods.playerDie(player);
             }
 
-            event.getPlayer().addPotionEffect(new PotionEffect(PotionEffectType.BLINDNESS, 10000, 1));
+            if (Parkour.getSettings().isUseParkourKit()) {
+                handleBlockBelow(player, block, session.getCourse().getParkourKit());
 
-        } else if (session.getMode() == ParkourMode.MOON) {
-            if (event.getPlayer().hasPotionEffect(PotionEffectType.JUMP)) {
-                return;
+                if (blockChanged || session.getSideMaterials() == null) {
+                    session.setSideMaterials(lookupSideMaterials(block));
+                }
             }
-
-            event.getPlayer().addPotionEffect(new PotionEffect(PotionEffectType.JUMP, 10000,
-                    Parkour.getPlugin().getConfig().getInt("ParkourModes.Moon.Strength")));
         }
-    }
 
-    @EventHandler
-    public void onPlayerMove(PlayerMoveEvent event) {
-        if (!PlayerMethods.isPlaying(event.getPlayer().getName())) {
+        if (!Parkour.getSettings().isUseParkourKit() || session.getSideMaterials() == null) {
             return;
         }
 
-        Player player = event.getPlayer();
-        ParkourSession session = PlayerMethods.getParkourSession(player.getName());
+        ParkourKit kit = session.getCourse().getParkourKit();
+        Material[] sideMaterials = session.getSideMaterials();
 
-        // Only do fall checks if mode is not 'dropper' course
-        if (session.getMode() != ParkourMode.DROPPER &&
-                player.getFallDistance() > Parkour.getSettings().getMaxFallTicks()) {
-            PlayerMethods.playerDie(player);
-            return;
-        }
+        for (int i = 0; i < BLOCK_FACES.length; i++) {
+            BlockFace blockFace = BLOCK_FACES[i];
+            Material material = sideMaterials[i];
+            ParkourKitAction sideAction = kit.getAction(material);
 
-        if (player.getLocation().getBlock().isLiquid() &&
-                Parkour.getPlugin().getConfig().getBoolean("OnCourse.DieInLiquid")) {
-            PlayerMethods.playerDie(player);
-        }
+            if (sideAction == ParkourKitAction.CLIMB) {
+                if (!player.isSneaking()) {
+                    player.setVelocity(new Vector(0, kit.getStrength(material), 0));
+                }
 
-        if (!Parkour.getSettings().isUseParkourKit()) {
-            return;
-        }
+            } else if (sideAction == ParkourKitAction.REPULSE) {
+                double strength = kit.getStrength(material);
+                double x = blockFace == BlockFace.NORTH || blockFace == BlockFace.SOUTH ? 0
+                        : blockFace == BlockFace.EAST ? -strength : strength;
+                double z = blockFace == BlockFace.EAST || blockFace == BlockFace.WEST ? 0
+                        : blockFace == BlockFace.NORTH ? strength : -strength;
 
-        if (Parkour.getSettings().isAttemptLessChecks()) {
-            if (event.getTo().getBlockX() == event.getFrom().getBlockX() &&
-                    event.getTo().getBlockY() == event.getFrom().getBlockY() &&
-                    event.getTo().getBlockZ() == event.getFrom().getBlockZ()) {
-                return;
+                player.setVelocity(new Vector(x, 0.1, z));
             }
         }
+    }
+
+    /**
+     * Look up the materials of the blocks beside the block, in the order of BLOCK_FACES.
+     */
+    private Material[] lookupSideMaterials(Block block) {
+        Material[] materials = new Material[BLOCK_FACES.length];
+        for (int i = 0; i < BLOCK_FACES.length; i++) {
+            materials[i] = block.getRelative(BLOCK_FACES[i]).getType();
+        }
+        return materials;
+    }
 
-        Material belowMaterial = player.getLocation().getBlock().getRelative(BlockFace.DOWN).getType();
+    /**
+     * Apply the action of the ParkourKit block the player is standing on.
+     */
+    private void handleBlockBelow(Player player, Block block, ParkourKit kit) {
+        Material belowMaterial = block.getRelative(BlockFace.DOWN).getType();
         // if player is on half-block or jumping, get actual location.
-        if (player.getLocation().getBlock().getType() != Material.AIR || !player.isOnGround()) {
-            belowMaterial = player.getLocation().getBlock().getType();
+        if (block.getType() != Material.AIR || !player.isOnGround()) {
+            belowMaterial = block.getType();
         }
-        ParkourKit kit = session.getCourse().getParkourKit();
 
         if (belowMaterial.equals(Material.SPONGE)) {
             player.setFallDistance(0);
         }
 
-        if (kit.getMaterials().contains(belowMaterial)) {
-            String action = kit.getAction(belowMaterial);
+        ParkourKitAction action = kit.getAction(belowMaterial);
 
+        if (action != null) {
             switch (action) {
-                case "finish":
+                case FINISH:
                     PlayerMethods.playerFinish(player);
                     break;
 
-                case "death":
+                case DEATH:
                     PlayerMethods.playerDie(player);
                     break;
 
-                case "launch":
+                case LAUNCH:
                     player.setVelocity(new Vector(0, kit.getStrength(belowMaterial), 0));
                     break;
 
-                case "bounce":
+                case BOUNCE:
                     if (!player.hasPotionEffect(PotionEffectType.JUMP)) {
                         player.addPotionEffect(
                                 new PotionEffect(PotionEffectType.JUMP,
                                         kit.getDuration(belowMaterial),
-                                        kit.getStrength(belowMaterial).intValue()));
+                                        (int) kit.getStrength(belowMaterial)));
                     }
                     break;
 
-                case "speed":
+                case SPEED:
                     if (!player.hasPotionEffect(PotionEffectType.SPEED)) {
                         player.addPotionEffect(
                                 new PotionEffect(PotionEffectType.SPEED,
                                         kit.getDuration(belowMaterial),
-                                        kit.getStrength(belowMaterial).intValue()));
+                                        (int) kit.getStrength(belowMaterial)));
                     }
                     break;
 
-                case "norun":
+                case NORUN:
                     player.setSprinting(false);
                     break;
 
-                case "nopotion":
+                case NOPOTION:
                     for (PotionEffect effect : player.getActivePotionEffects()) {
                         player.removePotionEffect(effect.getType());
                     }
@@ -165,30 +176,5 @@ public class PlayerMoveListener implements Listener {
                     break;
             }
         }
-
-        for (BlockFace blockFace : BLOCK_FACES) {
-            Material material = player.getLocation().getBlock().getRelative(blockFace).getType();
-
-            if (kit.getMaterials().contains(material)) {
-                String action = kit.getAction(material);
-
-                switch (action) {
-                    case "climb":
-                        if (!player.isSneaking()) {
-                            player.setVelocity(new Vector(0, kit.getStrength(material), 0));
-                        }
-                        break;
-                    case "repulse":
-                        double strength = kit.getStrength(material);
-                        double x = blockFace == BlockFace.NORTH || blockFace == BlockFace.SOUTH ? 0
-                                : blockFace == BlockFace.EAST ? -strength : strength;
-                        double z = blockFace == BlockFace.EAST || blockFace == BlockFace.WEST ? 0
-                                : blockFace == BlockFace.NORTH ? strength : -strength;
-
-                        player.setVelocity(new Vector(x, 0.1, z));
-                        break;
-                }
-            }
-        }
     }
 }
@@ -4,6 +4,7 @@ import me.A5H73Y.parkour.Parkour;
 import me.A5H73Y.parkour.course.CourseInfo;
 import me.A5H73Y.parkour.course.CourseMethods;
 import me.A5H73Y.parkour.course.LobbyMethods;
+import me.A5H73Y.parkour.manager.DatabaseQueryManager;
 import me.A5H73Y.parkour.other.Validation;
 import me.A5H73Y.parkour.player.ParkourSession;
 import me.A5H73Y.parkour.player.PlayerMethods;
@@ -111,7 +112,7 @@ public class SignListener implements Listener {
         String[] lines = sign.getLines();
 
         if (!ChatColor.stripColor(lines[0]).contains(ChatColor.stripColor(Static.getParkourSignString()))) {
-            if (!PlayerMethods.isPlaying(event.getPlayer().getName())) {
+            if (!PlayerMethods.isPlaying(event.getPlayer())) {
                 return;
             }
 
@@ -141,12 +142,12 @@ public class SignListener implements Listener {
                 event.getPlayer().sendMessage(Utils.getTranslation("Error.NoExist").replace("%COURSE%", lines[2]));
                 return;
 
-            } else if (!PlayerMethods.isPlaying(event.getPlayer().getName())) {
+            } else if (!PlayerMethods.isPlaying(event.getPlayer())) {
                 event.getPlayer().sendMessage(Utils.getTranslation("Error.NotOnCourse"));
                 return;
             }
 
-            ParkourSession session = PlayerMethods.getParkourSession(event.getPlayer().getName());
+            ParkourSession session = PlayerMethods.getParkourSession(event.getPlayer());
 
             if (lines[3].isEmpty() || !Validation.isPositiveInteger(lines[3])) {
                 return;
@@ -190,10 +191,10 @@ public class SignListener implements Listener {
             if (lines[2].isEmpty() || !CourseMethods.exist(lines[2])) {
                 event.getPlayer().sendMessage(Utils.getTranslation("Error.Unknown"));
 
-            } else if (!PlayerMethods.isPlaying(event.getPlayer().getName())) {
+            } else if (!PlayerMethods.isPlaying(event.getPlayer())) {
                 event.getPlayer().sendMessage(Utils.getTranslation("Error.NotOnCourse"));
 
-            } else if (!PlayerMethods.getParkourSession(event.getPlayer().getName()).getCourse().getName().equals(lines[2].toLowerCase())) {
+            } else if (!PlayerMethods.getParkourSession(event.getPlayer()).getCourse().getName().equals(lines[2].toLowerCase())) {
                 event.getPlayer().sendMessage(Utils.getTranslation("Error.NotOnCourse"));
 
             } else {
@@ -209,9 +210,11 @@ public class SignListener implements Listener {
 
             } else if (Utils.delayPlayer(event.getPlayer(), 4, true)) {
                 int amount = lines[3].isEmpty() ? 5 : Integer.valueOf(lines[3]);
+                Player player = event.getPlayer();
+                String courseName = lines[2];
 
-                Utils.displayLeaderboard(event.getPlayer(),
-                        DatabaseMethods.getTopCourseResults(lines[2], amount), lines[2]);
+                DatabaseQueryManager.getInstance().thenSync(DatabaseMethods.getTopCourseResultsAsync(courseName, amount),
+                        results -> Utils.displayLeaderboard(player, results, courseName));
             }
 
         } else {
@@ -0,0 +1,21 @@
+package me.A5H73Y.parkour.listener;
+
+import me.A5H73Y.parkour.course.CourseInfo;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+
+public class WorldListener implements Listener {
+
+    @EventHandler
+    public void onWorldLoad(WorldLoadEvent event) {
+        CourseInfo.refreshWorld(event.getWorld().getName(), event.getWorld());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        CourseInfo.refreshWorld(event.getWorld().getName(), null);
+    }
+}
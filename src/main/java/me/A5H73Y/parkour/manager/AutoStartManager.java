@@ -0,0 +1,191 @@
+package me.A5H73Y.parkour.manager;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import me.A5H73Y.parkour.Parkour;
+import me.A5H73Y.parkour.utilities.Utils;
+import org.bukkit.configuration.ConfigurationSection;
+
+/**
+ * Index of the AutoStart pressure plates, by their block coordinates.
+ * The coordinates are packed into a long, and held in an open addressing table of primitive keys,
+ * so looking up the plate a player stepped on is a single probe without allocating.
+ */
+public class AutoStartManager {
+
+    private static final String AUTOSTART_PATH = "CourseInfo.AutoStart";
+    private static final Pattern COORDINATES = Pattern.compile("(-?\\d+)-(-?\\d+)-(-?\\d+)");
+    private static final int INITIAL_CAPACITY = 16;
+
+    private static AutoStartManager instance;
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+    // a null course marks an empty slot
+    private String[] courses = new String[INITIAL_CAPACITY];
+    private int size;
+
+    private AutoStartManager() {
+    }
+
+    public static AutoStartManager getInstance() {
+        if (instance == null) {
+            instance = new AutoStartManager();
+        }
+
+        return instance;
+    }
+
+    /**
+     * Populate the index from the AutoStarts in courses.yml, replacing anything already indexed.
+     */
+    public void loadAutoStarts() {
+        keys = new long[INITIAL_CAPACITY];
+        courses = new String[INITIAL_CAPACITY];
+        size = 0;
+
+        ConfigurationSection entries = Parkour.getParkourConfig().getCourseData().getConfigurationSection(AUTOSTART_PATH);
+        if (entries == null) {
+            return;
+        }
+
+        for (String coordinates : entries.getKeys(false)) {
+            Matcher matcher = COORDINATES.matcher(coordinates);
+            if (!matcher.matches()) {
+                Utils.log("Invalid AutoStart coordinates: " + coordinates, 1);
+                continue;
+            }
+
+            put(Utils.packBlockCoordinates(Integer.parseInt(matcher.group(1)),
+                    Integer.parseInt(matcher.group(2)), Integer.parseInt(matcher.group(3))),
+                    entries.getString(coordinates));
+        }
+    }
+
+    /**
+     * Find the course of the AutoStart at the block coordinates.
+     *
+     * @param x
+     * @param y
+     * @param z
+     * @return course name, or null if there isn't an AutoStart
+     */
+    public String getAutoStartCourse(int x, int y, int z) {
+        return courses[findSlot(keys, courses, Utils.packBlockCoordinates(x, y, z))];
+    }
+
+    /**
+     * Index a new AutoStart.
+     *
+     * @param x
+     * @param y
+     * @param z
+     * @param courseName
+     */
+    public void addAutoStart(int x, int y, int z, String courseName) {
+        put(Utils.packBlockCoordinates(x, y, z), courseName);
+    }
+
+    /**
+     * Remove the AutoStart from the index.
+     *
+     * @param coordinates coordinates in the format "x-y-z"
+     */
+    public void removeAutoStart(String coordinates) {
+        Matcher matcher = COORDINATES.matcher(coordinates);
+        if (!matcher.matches()) {
+            return;
+        }
+
+        removeAutoStart(Integer.parseInt(matcher.group(1)),
+                Integer.parseInt(matcher.group(2)), Integer.parseInt(matcher.group(3)));
+    }
+
+    /**
+     * Remove the AutoStart at the block coordinates from the index.
+     *
+     * @param x
+     * @param y
+     * @param z
+     */
+    public void removeAutoStart(int x, int y, int z) {
+        remove(Utils.packBlockCoordinates(x, y, z));
+    }
+
+    private void put(long key, String courseName) {
+        if (courseName == null) {
+            return;
+        }
+
+        // keep the table at most half full, so probes stay short
+        if ((size + 1) * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+
+        int slot = findSlot(keys, courses, key);
+        if (courses[slot] == null) {
+            size++;
+        }
+        keys[slot] = key;
+        courses[slot] = courseName;
+    }
+
+    /**
+     * Remove the key, shifting back the entries which follow it so they can still be found.
+     */
+    private void remove(long key) {
+        int mask = keys.length - 1;
+        int slot = findSlot(keys, courses, key);
+        if (courses[slot] == null) {
+            return;
+        }
+        size--;
+
+        int next = (slot + 1) & mask;
+        while (courses[next] != null) {
+            int home = hash(keys[next]) & mask;
+
+            // the entry can fill the gap, unless the gap is before its home slot
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                keys[slot] = keys[next];
+                courses[slot] = courses[next];
+                slot = next;
+            }
+            next = (next + 1) & mask;
+        }
+        courses[slot] = null;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        String[] oldCourses = courses;
+        keys = new long[capacity];
+        courses = new String[capacity];
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldCourses[i] != null) {
+                int slot = findSlot(keys, courses, oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                courses[slot] = oldCourses[i];
+            }
+        }
+    }
+
+    /**
+     * Find the slot holding the key, or the empty slot where it would be placed.
+     */
+    private static int findSlot(long[] keys, String[] courses, long key) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+
+        while (courses[slot] != null && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int hash(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+}
@@ -200,8 +200,8 @@ public class ChallengeManager {
                     senderPlayer.setWalkSpeed(playerSpeed);
                     receiverPlayer.setWalkSpeed(targetSpeed);
 
-                    PlayerMethods.getParkourSession(senderPlayer.getName()).resetTimeStarted();
-                    PlayerMethods.getParkourSession(receiverPlayer.getName()).resetTimeStarted();
+                    PlayerMethods.getParkourSession(senderPlayer).resetTimeStarted();
+                    PlayerMethods.getParkourSession(receiverPlayer).resetTimeStarted();
                 }
             }
         };
@@ -0,0 +1,147 @@
+package me.A5H73Y.parkour.manager;
+
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import me.A5H73Y.parkour.Parkour;
+import me.A5H73Y.parkour.utilities.Utils;
+import org.bukkit.Bukkit;
+
+/**
+ * Executes database queries away from the server thread.
+ * Queries run on a small bounded pool of threads, and the results can be handed back to the server thread.
+ */
+public class DatabaseQueryManager {
+
+    private static final int QUEUE_CAPACITY = 500;
+    private static final long SHUTDOWN_TIMEOUT = 5000;
+
+    private static DatabaseQueryManager instance;
+
+    private final AtomicInteger threadCount = new AtomicInteger();
+    private final Queue<Runnable> callbacks = new ConcurrentLinkedQueue<>();
+    private ExecutorService executor;
+
+    private DatabaseQueryManager() {
+    }
+
+    public static DatabaseQueryManager getInstance() {
+        if (instance == null) {
+            instance = new DatabaseQueryManager();
+        }
+
+        return instance;
+    }
+
+    /**
+     * Start the query threads.
+     * Has no effect if they are already running.
+     *
+     * @param threads number of threads, at least 1
+     */
+    public synchronized void start(int threads) {
+        if (executor != null) {
+            return;
+        }
+
+        threads = Math.max(1, threads);
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY), runnable -> {
+            Thread thread = new Thread(runnable, "Parkour-DatabaseQuery-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Stop the query threads, waiting briefly for the running queries to finish.
+     * Any callbacks still waiting for the server thread are run, so their results aren't lost.
+     */
+    public synchronized void shutdown() {
+        if (executor == null) {
+            return;
+        }
+
+        executor.shutdown();
+        try {
+            executor.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        executor = null;
+        runCallbacks();
+    }
+
+    /**
+     * Run the query on a query thread.
+     * If the threads aren't running, the query is run immediately on the calling thread.
+     *
+     * @param query query to run
+     * @param <T>   result type
+     * @return future completed with the result of the query
+     */
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> query) {
+        ExecutorService currentExecutor = executor;
+
+        if (currentExecutor == null) {
+            return CompletableFuture.completedFuture(query.get());
+        }
+
+        try {
+            return CompletableFuture.supplyAsync(query, currentExecutor);
+
+        } catch (RejectedExecutionException e) {
+            Utils.log("Database query queue is full (" + QUEUE_CAPACITY + "), the query was rejected.", 1);
+            CompletableFuture<T> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
+    }
+
+    /**
+     * Hand the result back to the server thread once it's available.
+     * If the result is already available on the server thread, the callback is run immediately.
+     * Callbacks still waiting when the query threads are stopped are run by {@link #shutdown()}.
+     *
+     * @param future   pending result
+     * @param callback task to run on the server thread
+     * @param <T>      result type
+     * @return future completed once the callback has run
+     */
+    public <T> CompletableFuture<Void> thenSync(CompletableFuture<T> future, Consumer<T> callback) {
+        return future.thenAcceptAsync(callback, this::runOnServerThread)
+                .exceptionally(error -> {
+                    Utils.log("Database query failed: " + error.getMessage(), 2);
+                    return null;
+                });
+    }
+
+    private void runOnServerThread(Runnable task) {
+        if (Bukkit.isPrimaryThread()) {
+            task.run();
+            return;
+        }
+
+        // held until run, so they aren't lost if the plugin is disabled before the scheduler gets to them
+        callbacks.add(task);
+        if (Parkour.getPlugin() != null && Parkour.getPlugin().isEnabled()) {
+            Bukkit.getScheduler().runTask(Parkour.getPlugin(), this::runCallbacks);
+        }
+    }
+
+    private void runCallbacks() {
+        Runnable task;
+        while ((task = callbacks.poll()) != null) {
+            task.run();
+        }
+    }
+}
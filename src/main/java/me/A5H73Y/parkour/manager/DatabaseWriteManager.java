@@ -0,0 +1,374 @@
+package me.A5H73Y.parkour.manager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.huskehhh.mysql.Database;
+import me.A5H73Y.parkour.Parkour;
+import me.A5H73Y.parkour.utilities.Utils;
+
+/**
+ * Write-behind queue for the database.
+ * Writes are queued by the server thread and executed in order by a single writer thread,
+ * which groups the pending writes into JDBC batches inside one transaction.
+ */
+public class DatabaseWriteManager {
+
+    private static final int QUEUE_CAPACITY = 1000;
+    private static final int MAX_BATCH_SIZE = 100;
+    private static final long OFFER_TIMEOUT = 50;
+    private static final long BLOCKED_TIMEOUT = 1000;
+    private static final long SHUTDOWN_TIMEOUT = 10000;
+    private static final WriteUnit SHUTDOWN = new WriteUnit(null, null, Collections.emptyList());
+
+    private static DatabaseWriteManager instance;
+
+    private final BlockingQueue<WriteUnit> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final AtomicInteger peakPending = new AtomicInteger();
+    private final AtomicLong totalQueued = new AtomicLong();
+    private final AtomicLong totalWritten = new AtomicLong();
+    private final AtomicLong totalBatches = new AtomicLong();
+    private final AtomicLong totalBlocked = new AtomicLong();
+    private final AtomicLong totalFailed = new AtomicLong();
+    private final AtomicLong totalDropped = new AtomicLong();
+    // only the first warning of each time the queue fills up is logged
+    private volatile boolean queueFull;
+    private volatile boolean droppingWrites;
+    private volatile long lastBatchMillis;
+    private volatile boolean running;
+    private Thread writer;
+
+    private DatabaseWriteManager() {
+    }
+
+    public static DatabaseWriteManager getInstance() {
+        if (instance == null) {
+            instance = new DatabaseWriteManager();
+        }
+
+        return instance;
+    }
+
+    /**
+     * Start the writer thread.
+     * Has no effect if the writer is already running.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+
+        running = true;
+        writer = new Thread(this::processQueue, "Parkour-DatabaseWriter");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Stop the writer thread and write everything still pending.
+     * Blocks until the queue has been emptied, or the writer has taken too long.
+     * The remaining writes are only made here once the writer has exited, so they can't be made out of order.
+     */
+    public synchronized void shutdown() {
+        if (running) {
+            running = false;
+            try {
+                queue.offer(SHUTDOWN, SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            try {
+                writer.join(SHUTDOWN_TIMEOUT);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            if (writer.isAlive()) {
+                // the writer is still busy, writing here as well could commit the writes out of order
+                List<WriteUnit> dropped = new ArrayList<>();
+                queue.drainTo(dropped);
+                dropped.remove(SHUTDOWN);
+                totalDropped.addAndGet(dropped.size());
+                Utils.log("Database writer didn't finish within " + SHUTDOWN_TIMEOUT / 1000 + " seconds, "
+                        + dropped.size() + " pending writes were dropped.", 2);
+                writer.interrupt();
+                writer = null;
+                return;
+            }
+            writer = null;
+        }
+
+        List<WriteUnit> remaining = new ArrayList<>();
+        while (queue.drainTo(remaining, MAX_BATCH_SIZE) > 0) {
+            remaining.remove(SHUTDOWN);
+            processBatch(remaining);
+            remaining.clear();
+        }
+    }
+
+    /**
+     * Queue a single statement to be written.
+     *
+     * @param sql        statement to execute
+     * @param parameters parameters to bind, in order
+     */
+    public void queue(String sql, Object... parameters) {
+        queueAtomic(null, new QueuedStatement(sql, parameters));
+    }
+
+    /**
+     * Queue statements which must be written together.
+     * The statements are executed in order within the same transaction.
+     *
+     * @param afterCommit optional task to run once the statements are committed
+     * @param statements  statements to execute
+     */
+    public void queueAtomic(Runnable afterCommit, QueuedStatement... statements) {
+        queueAtomic(afterCommit, null, statements);
+    }
+
+    /**
+     * Queue statements which must be written together.
+     * The statements are executed in order within the same transaction.
+     *
+     * @param afterCommit optional task to run once the statements are committed
+     * @param onFailure   optional task to run if the statements couldn't be written
+     * @param statements  statements to execute
+     */
+    public void queueAtomic(Runnable afterCommit, Runnable onFailure, QueuedStatement... statements) {
+        WriteUnit unit = new WriteUnit(afterCommit, onFailure, Arrays.asList(statements));
+        totalQueued.incrementAndGet();
+
+        if (!running) {
+            processBatch(Collections.singletonList(unit));
+            return;
+        }
+
+        enqueue(unit);
+        peakPending.accumulateAndGet(queue.size(), Math::max);
+    }
+
+    /**
+     * Add to the queue, blocking the caller for a while if the queue is full.
+     * Blocking keeps the writes in order, at the expense of the calling thread.
+     * If the writer doesn't catch up in time, the write is dropped rather than blocking the server.
+     */
+    private void enqueue(WriteUnit unit) {
+        try {
+            if (queue.offer(unit, OFFER_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                queueFull = false;
+                droppingWrites = false;
+                return;
+            }
+
+            totalBlocked.incrementAndGet();
+            if (!queueFull) {
+                queueFull = true;
+                Utils.log("Database write queue is full (" + QUEUE_CAPACITY + "), waiting for the writer to catch up.", 1);
+            }
+
+            if (queue.offer(unit, BLOCKED_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        dropWrite(unit);
+    }
+
+    /**
+     * Give up on the write, the writes already queued are still written in order.
+     */
+    private void dropWrite(WriteUnit unit) {
+        totalDropped.incrementAndGet();
+        if (!droppingWrites) {
+            droppingWrites = true;
+            Utils.log("Database writer isn't keeping up, writes are being dropped.", 2);
+        }
+
+        if (unit.onFailure != null) {
+            unit.onFailure.run();
+        }
+    }
+
+    private void processQueue() {
+        List<WriteUnit> batch = new ArrayList<>();
+
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+
+            queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+            boolean shutdown = batch.remove(SHUTDOWN);
+
+            processBatch(batch);
+            batch.clear();
+
+            if (shutdown) {
+                break;
+            }
+        }
+    }
+
+    private void processBatch(List<WriteUnit> units) {
+        if (units.isEmpty()) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        List<WriteUnit> committed = units;
+
+        try {
+            executeUnits(units);
+
+        } catch (SQLException | ClassNotFoundException e) {
+            committed = new ArrayList<>();
+
+            // retry individually so one bad write doesn't lose the whole batch
+            for (WriteUnit unit : units) {
+                try {
+                    executeUnits(Collections.singletonList(unit));
+                    committed.add(unit);
+                } catch (SQLException | ClassNotFoundException ex) {
+                    totalFailed.incrementAndGet();
+                    Utils.log("Failed to write to the database: " + ex.getMessage(), 2);
+                    if (unit.onFailure != null) {
+                        unit.onFailure.run();
+                    }
+                }
+            }
+        }
+
+        lastBatchMillis = System.currentTimeMillis() - start;
+        totalBatches.incrementAndGet();
+
+        for (WriteUnit unit : committed) {
+            totalWritten.addAndGet(unit.statements.size());
+            if (unit.afterCommit != null) {
+                unit.afterCommit.run();
+            }
+        }
+    }
+
+    private void executeUnits(List<WriteUnit> units) throws SQLException, ClassNotFoundException {
+        Database database = Parkour.getDatabase();
+        Connection connection = null;
+        PreparedStatement ps = null;
+        String currentSql = null;
+
+        try {
+            connection = database.borrowConnection();
+            connection.setAutoCommit(false);
+
+            for (WriteUnit unit : units) {
+                for (QueuedStatement statement : unit.statements) {
+                    if (!statement.sql.equals(currentSql)) {
+                        if (ps != null) {
+                            ps.executeBatch();
+                        }
+                        ps = database.prepareStatement(connection, statement.sql);
+                        currentSql = statement.sql;
+                    }
+
+                    Database.bind(ps, statement.parameters);
+                    ps.addBatch();
+                }
+            }
+
+            if (ps != null) {
+                ps.executeBatch();
+            }
+            connection.commit();
+
+        } finally {
+            // an uncommitted transaction is rolled back when returned
+            database.returnConnection(connection);
+        }
+    }
+
+    public int getPending() {
+        return queue.size();
+    }
+
+    public int getPeakPending() {
+        return peakPending.get();
+    }
+
+    public int getCapacity() {
+        return QUEUE_CAPACITY;
+    }
+
+    public long getTotalQueued() {
+        return totalQueued.get();
+    }
+
+    public long getTotalWritten() {
+        return totalWritten.get();
+    }
+
+    public long getTotalBatches() {
+        return totalBatches.get();
+    }
+
+    public long getTotalBlocked() {
+        return totalBlocked.get();
+    }
+
+    public long getTotalFailed() {
+        return totalFailed.get();
+    }
+
+    public long getTotalDropped() {
+        return totalDropped.get();
+    }
+
+    public long getLastBatchMillis() {
+        return lastBatchMillis;
+    }
+
+    /**
+     * A statement waiting to be written, with its parameters.
+     */
+    public static class QueuedStatement {
+
+        private final String sql;
+        private final Object[] parameters;
+
+        public QueuedStatement(String sql, Object... parameters) {
+            this.sql = sql;
+            this.parameters = parameters;
+        }
+    }
+
+    /**
+     * Statements which must be committed together.
+     */
+    private static class WriteUnit {
+
+        private final Runnable afterCommit;
+        private final Runnable onFailure;
+        private final List<QueuedStatement> statements;
+
+        private WriteUnit(Runnable afterCommit, Runnable onFailure, List<QueuedStatement> statements) {
+            this.afterCommit = afterCommit;
+            this.onFailure = onFailure;
+            this.statements = statements;
+        }
+    }
+}
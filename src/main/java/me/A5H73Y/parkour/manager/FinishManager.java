@@ -0,0 +1,172 @@
+package me.A5H73Y.parkour.manager;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import me.A5H73Y.parkour.Parkour;
+import me.A5H73Y.parkour.course.CourseInfo;
+import me.A5H73Y.parkour.enums.FinishStage;
+import me.A5H73Y.parkour.other.TimeObject;
+import me.A5H73Y.parkour.player.PlayerInfo;
+import me.A5H73Y.parkour.utilities.DatabaseMethods;
+import me.A5H73Y.parkour.utilities.Utils;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+/**
+ * Processes a player finishing a course in stages, so the server thread doesn't wait on the database.
+ * Once the player has been dealt with on the server thread, the statistics are updated,
+ * the time is checked for a new record and queued to be persisted, all on the server thread.
+ * Only if the leaderboards aren't loaded is the record looked up on a query thread.
+ * Any new record is announced back on the server thread.
+ * Each stage is timed, and a stage which takes too long is logged.
+ */
+public class FinishManager {
+
+    private static final long SLOW_STAGE_MILLIS = 50;
+
+    private static FinishManager instance;
+
+    private final int stages = FinishStage.values().length;
+    private final AtomicLongArray counts = new AtomicLongArray(stages);
+    private final AtomicLongArray totalNanos = new AtomicLongArray(stages);
+    private final AtomicLongArray maxNanos = new AtomicLongArray(stages);
+
+    private FinishManager() {
+    }
+
+    public static FinishManager getInstance() {
+        if (instance == null) {
+            instance = new FinishManager();
+        }
+
+        return instance;
+    }
+
+    /**
+     * Process the finished course, once the player has been dealt with.
+     * The time is always queued to be persisted from the server thread, so it's written in order with other changes.
+     * The records are checked against the leaderboards before the time is added to them.
+     * The time isn't queued until persistAfter has completed, so checks made before the finish can't see it.
+     *
+     * @param player
+     * @param courseName
+     * @param timeTaken
+     * @param deaths
+     * @param persistAfter future which must complete before the time is persisted
+     * @return future completed once the time has been persisted and any record announced
+     */
+    public CompletableFuture<Void> processFinish(Player player, String courseName, long timeTaken, int deaths,
+                                                 CompletableFuture<?> persistAfter) {
+        long started = System.nanoTime();
+        CourseInfo.increaseComplete(courseName);
+        PlayerInfo.setCompletedCourseInfo(player, courseName);
+        timeStage(FinishStage.STATISTICS, started);
+
+        // the config is read here, it isn't safe to read from the query threads
+        final UUID playerId = player.getUniqueId();
+        final String playerName = player.getName();
+        final boolean displayRecords = Parkour.getPlugin().getConfig().getBoolean("OnFinish.DisplayNewRecords");
+        final boolean keepHistory = !Parkour.getPlugin().getConfig().getBoolean("OnFinish.UpdatePlayerDatabaseTime");
+
+        CompletableFuture<String> recordTitle;
+        if (!displayRecords) {
+            recordTitle = CompletableFuture.completedFuture(null);
+
+        } else if (LeaderboardManager.getInstance().isLoaded()) {
+            long recordStarted = System.nanoTime();
+            recordTitle = CompletableFuture.completedFuture(findRecordTitle(playerName, courseName, timeTaken, false));
+            timeStage(FinishStage.RECORD, recordStarted);
+
+        } else {
+            recordTitle = DatabaseQueryManager.getInstance().supplyAsync(() -> {
+                long recordStarted = System.nanoTime();
+                String title = findRecordTitle(playerName, courseName, timeTaken, true);
+                timeStage(FinishStage.RECORD, recordStarted);
+                return title;
+            });
+        }
+
+        CompletableFuture<Object> ready = persistAfter.handle((result, error) -> null);
+        CompletableFuture<Void> persisted = DatabaseQueryManager.getInstance().thenSync(ready, ignored -> {
+            long persistStarted = System.nanoTime();
+            DatabaseMethods.insertOrUpdateTime(courseName, playerName, timeTaken, deaths, keepHistory);
+            timeStage(FinishStage.PERSIST, persistStarted);
+        });
+
+        CompletableFuture<Void> announced = DatabaseQueryManager.getInstance().thenSync(recordTitle, title -> {
+            long announceStarted = System.nanoTime();
+            Player online = Bukkit.getPlayer(playerId);
+
+            if (title != null && online != null) {
+                Utils.sendFullTitle(online, Utils.getTranslation(title, false), Utils.displayCurrentTime(timeTaken), true);
+            }
+            timeStage(FinishStage.ANNOUNCE, announceStarted);
+        });
+
+        return CompletableFuture.allOf(persisted, announced);
+    }
+
+    /**
+     * Record how long the stage took.
+     *
+     * @param stage
+     * @param started value of System.nanoTime() when the stage started
+     */
+    public void timeStage(FinishStage stage, long started) {
+        long taken = System.nanoTime() - started;
+        int index = stage.ordinal();
+
+        counts.incrementAndGet(index);
+        totalNanos.addAndGet(index, taken);
+        maxNanos.accumulateAndGet(index, taken, Math::max);
+
+        if (TimeUnit.NANOSECONDS.toMillis(taken) >= SLOW_STAGE_MILLIS) {
+            Utils.log("Finish stage " + stage.name().toLowerCase() + " took " + TimeUnit.NANOSECONDS.toMillis(taken) + "ms", 1);
+        }
+    }
+
+    /**
+     * Check whether the time beats the course record, or otherwise the player's best time.
+     * The player's best time is only looked up if it isn't a course record.
+     * When the time may already have been saved, matching the record is enough, as the record may be this time.
+     *
+     * @param playerName
+     * @param courseName
+     * @param timeTaken
+     * @param maybeSaved the time may already have been saved
+     * @return translation of the title to display, or null if it's not a new record
+     */
+    private String findRecordTitle(String playerName, String courseName, long timeTaken, boolean maybeSaved) {
+        List<TimeObject> courseRecord = DatabaseMethods.getTopCourseResults(courseName, 1);
+        if (courseRecord.isEmpty() || isBeaten(courseRecord.get(0), timeTaken, maybeSaved)) {
+            return "Parkour.CourseRecord";
+        }
+
+        List<TimeObject> playerRecord = DatabaseMethods.getTopPlayerCourseResults(playerName, courseName, 1);
+        if (playerRecord.isEmpty() || isBeaten(playerRecord.get(0), timeTaken, maybeSaved)) {
+            return "Parkour.BestTime";
+        }
+        return null;
+    }
+
+    private boolean isBeaten(TimeObject record, long timeTaken, boolean maybeSaved) {
+        return maybeSaved ? record.getTime() >= timeTaken : record.getTime() > timeTaken;
+    }
+
+    public long getCount(FinishStage stage) {
+        return counts.get(stage.ordinal());
+    }
+
+    public double getAverageMillis(FinishStage stage) {
+        long count = getCount(stage);
+        return count == 0 ? 0 : totalNanos.get(stage.ordinal()) / (count * 1000000.0);
+    }
+
+    public double getMaxMillis(FinishStage stage) {
+        return maxNanos.get(stage.ordinal()) / 1000000.0;
+    }
+}
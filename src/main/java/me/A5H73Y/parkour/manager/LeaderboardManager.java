@@ -0,0 +1,432 @@
+package me.A5H73Y.parkour.manager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import me.A5H73Y.parkour.other.LeaderboardPosition;
+import me.A5H73Y.parkour.other.RankedSet;
+import me.A5H73Y.parkour.other.TimeObject;
+import me.A5H73Y.parkour.utilities.DatabaseMethods;
+import me.A5H73Y.parkour.utilities.Utils;
+
+/**
+ * In-memory index of each course's times, ordered from fastest to slowest.
+ * The database remains the source of truth, the index is loaded from it on startup
+ * and kept up to date as times are inserted and deleted.
+ * The course leaderboard is made up of each player's personal best, so a player appears on it once.
+ * Only each player's fastest times are kept, as many as can be requested.
+ */
+public class LeaderboardManager {
+
+    public static final int MAX_PLAYER_TIMES = 20;
+
+    private static LeaderboardManager instance;
+
+    private volatile Map<String, CourseLeaderboard> leaderboards = new ConcurrentHashMap<>();
+    private final List<Consumer<Map<String, CourseLeaderboard>>> pendingChanges = new ArrayList<>();
+    private boolean loading;
+    private volatile boolean loaded;
+
+    private LeaderboardManager() {
+    }
+
+    public static LeaderboardManager getInstance() {
+        if (instance == null) {
+            instance = new LeaderboardManager();
+        }
+
+        return instance;
+    }
+
+    /**
+     * Populate the leaderboards from the database on a query thread.
+     * Until this has succeeded, results should be retrieved from the database instead.
+     */
+    public void loadLeaderboardsAsync() {
+        DatabaseQueryManager.getInstance().supplyAsync(() -> {
+            loadLeaderboards();
+            return null;
+        });
+    }
+
+    /**
+     * Populate the leaderboards with each player's fastest times and personal best in the database.
+     * Times added or removed while the leaderboards are loading are applied again once they have loaded,
+     * so nothing is lost if the database was read before the change was written.
+     */
+    public void loadLeaderboards() {
+        synchronized (this) {
+            loading = true;
+            pendingChanges.clear();
+        }
+
+        Map<String, List<TimeObject>> courseTimes = DatabaseMethods.getAllCourseTimes(MAX_PLAYER_TIMES);
+        Map<String, List<TimeObject>> personalBests = DatabaseMethods.getAllPersonalBests();
+        if (courseTimes == null || personalBests == null) {
+            synchronized (this) {
+                loading = false;
+                pendingChanges.clear();
+            }
+            Utils.log("Unable to load the leaderboards, results will be retrieved from the database.", 1);
+            return;
+        }
+
+        Map<String, CourseLeaderboard> loadedBoards = new ConcurrentHashMap<>();
+        for (Map.Entry<String, List<TimeObject>> entry : courseTimes.entrySet()) {
+            CourseLeaderboard leaderboard = getLeaderboard(loadedBoards, entry.getKey());
+            for (TimeObject time : entry.getValue()) {
+                leaderboard.add(time);
+            }
+        }
+
+        // personal bests may be faster than anything in the history of times
+        for (Map.Entry<String, List<TimeObject>> entry : personalBests.entrySet()) {
+            CourseLeaderboard leaderboard = getLeaderboard(loadedBoards, entry.getKey());
+            for (TimeObject time : entry.getValue()) {
+                leaderboard.addPersonalBest(time);
+            }
+        }
+
+        synchronized (this) {
+            for (Consumer<Map<String, CourseLeaderboard>> change : pendingChanges) {
+                change.accept(loadedBoards);
+            }
+            pendingChanges.clear();
+            loading = false;
+            leaderboards = loadedBoards;
+            loaded = true;
+        }
+
+        int total = 0;
+        for (CourseLeaderboard leaderboard : loadedBoards.values()) {
+            total += leaderboard.getTotalTimes();
+        }
+        Utils.log("Loaded " + total + " times for " + loadedBoards.size() + " courses.");
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Get the fastest times for the course.
+     *
+     * @param courseName
+     * @param limit maximum number of results
+     * @return times ordered from fastest
+     */
+    public List<TimeObject> getTopResults(String courseName, int limit) {
+        CourseLeaderboard leaderboard = leaderboards.get(courseName.toLowerCase());
+        return leaderboard == null ? new ArrayList<>() : leaderboard.getTopResults(limit);
+    }
+
+    /**
+     * Get the player's fastest times for the course.
+     *
+     * @param playerName
+     * @param courseName
+     * @param limit maximum number of results
+     * @return player's times ordered from fastest
+     */
+    public List<TimeObject> getTopPlayerResults(String playerName, String courseName, int limit) {
+        CourseLeaderboard leaderboard = leaderboards.get(courseName.toLowerCase());
+        return leaderboard == null ? new ArrayList<>() : leaderboard.getTopPlayerResults(playerName, limit);
+    }
+
+    /**
+     * Get the course record.
+     *
+     * @param courseName
+     * @return fastest time, null if there are none
+     */
+    public TimeObject getBestResult(String courseName) {
+        CourseLeaderboard leaderboard = leaderboards.get(courseName.toLowerCase());
+        return leaderboard == null ? null : leaderboard.getBestResult();
+    }
+
+    /**
+     * Get the player's personal best for the course.
+     *
+     * @param playerName
+     * @param courseName
+     * @return player's fastest time, null if they haven't completed the course
+     */
+    public TimeObject getPersonalBest(String playerName, String courseName) {
+        CourseLeaderboard leaderboard = leaderboards.get(courseName.toLowerCase());
+        return leaderboard == null ? null : leaderboard.getPersonalBest(playerName);
+    }
+
+    /**
+     * Check if the time would beat the course record.
+     *
+     * @param courseName
+     * @param time
+     * @return time is a new course record
+     */
+    public boolean isNewCourseRecord(String courseName, long time) {
+        TimeObject record = getBestResult(courseName);
+        return record == null || record.getTime() > time;
+    }
+
+    /**
+     * Check if the time would beat the player's personal best.
+     *
+     * @param playerName
+     * @param courseName
+     * @param time
+     * @return time is a new personal best
+     */
+    public boolean isNewPersonalBest(String playerName, String courseName, long time) {
+        TimeObject personalBest = getPersonalBest(playerName, courseName);
+        return personalBest == null || personalBest.getTime() > time;
+    }
+
+    /**
+     * Get the player's position on the course, based on their personal best.
+     *
+     * @param playerName
+     * @param courseName
+     * @param radius number of neighbours to include either side of the player
+     * @return player's position, null if they haven't completed the course
+     */
+    public LeaderboardPosition getPosition(String playerName, String courseName, int radius) {
+        CourseLeaderboard leaderboard = leaderboards.get(courseName.toLowerCase());
+        return leaderboard == null ? null : leaderboard.getPosition(playerName, radius);
+    }
+
+    /**
+     * Get the number of players who have completed the course.
+     *
+     * @param courseName
+     * @return number of players
+     */
+    public int getTotalPlayers(String courseName) {
+        CourseLeaderboard leaderboard = leaderboards.get(courseName.toLowerCase());
+        return leaderboard == null ? 0 : leaderboard.getTotalPlayers();
+    }
+
+    public boolean hasPlayerCompleted(String playerName, String courseName) {
+        return getPersonalBest(playerName, courseName) != null;
+    }
+
+    /**
+     * Add the player's time to the course.
+     * When the history of times isn't kept, the time is only added if it's a new personal best.
+     *
+     * @param courseName
+     * @param time
+     * @param keepHistory whether every time is kept
+     */
+    public void addTime(String courseName, TimeObject time, boolean keepHistory) {
+        Consumer<Map<String, CourseLeaderboard>> change = boards -> {
+            CourseLeaderboard leaderboard = getLeaderboard(boards, courseName);
+            if (keepHistory) {
+                leaderboard.add(time);
+            } else {
+                leaderboard.addPersonalBest(time);
+            }
+        };
+
+        applyChange(change, boards -> {
+            // the time may already have been loaded from the database
+            if (!getLeaderboard(boards, courseName).contains(time)) {
+                change.accept(boards);
+            }
+        });
+    }
+
+    public void removePlayerTimes(String playerName, String courseName) {
+        applyChange(boards -> {
+            CourseLeaderboard leaderboard = boards.get(courseName.toLowerCase());
+            if (leaderboard != null) {
+                leaderboard.removePlayer(playerName);
+            }
+        });
+    }
+
+    public void removePlayerTimes(String playerName) {
+        applyChange(boards -> {
+            for (CourseLeaderboard leaderboard : boards.values()) {
+                leaderboard.removePlayer(playerName);
+            }
+        });
+    }
+
+    public void removeCourse(String courseName) {
+        applyChange(boards -> boards.remove(courseName.toLowerCase()));
+    }
+
+    /**
+     * Apply the change to the leaderboards, and again once they have loaded if they are loading.
+     */
+    private void applyChange(Consumer<Map<String, CourseLeaderboard>> change) {
+        applyChange(change, change);
+    }
+
+    /**
+     * Apply the change to the leaderboards, and the replay once they have loaded if they are loading.
+     * The replay is applied to the loaded leaderboards, which may already include the change.
+     */
+    private synchronized void applyChange(Consumer<Map<String, CourseLeaderboard>> change,
+                                          Consumer<Map<String, CourseLeaderboard>> replay) {
+        change.accept(leaderboards);
+        if (loading) {
+            pendingChanges.add(replay);
+        }
+    }
+
+    private static CourseLeaderboard getLeaderboard(Map<String, CourseLeaderboard> boards, String courseName) {
+        return boards.computeIfAbsent(courseName.toLowerCase(), name -> new CourseLeaderboard());
+    }
+
+    /**
+     * The times for a single course.
+     * Times are held in an ordered set for each player, the slowest are dropped beyond MAX_PLAYER_TIMES.
+     * Each player's personal best is also ranked, which forms the course leaderboard.
+     */
+    private static class CourseLeaderboard {
+
+        private final Map<String, TreeSet<Entry>> playerTimes = new HashMap<>();
+        private final RankedSet<Entry> personalBests = new RankedSet<>();
+        private long sequence;
+
+        private synchronized boolean addPersonalBest(TimeObject time) {
+            TreeSet<Entry> entries = playerTimes.get(time.getPlayer());
+            if (entries != null && entries.first().time.getTime() <= time.getTime()) {
+                return false;
+            }
+
+            add(time);
+            return true;
+        }
+
+        private synchronized void add(TimeObject time) {
+            Entry entry = new Entry(time, sequence++);
+
+            TreeSet<Entry> entries = playerTimes.computeIfAbsent(time.getPlayer(), name -> new TreeSet<>());
+            Entry previousBest = entries.isEmpty() ? null : entries.first();
+            entries.add(entry);
+
+            if (entries.size() > MAX_PLAYER_TIMES) {
+                entries.pollLast();
+            }
+
+            if (entries.first() != previousBest) {
+                if (previousBest != null) {
+                    personalBests.remove(previousBest);
+                }
+                personalBests.add(entry);
+            }
+        }
+
+        private synchronized void removePlayer(String playerName) {
+            TreeSet<Entry> removed = playerTimes.remove(playerName);
+            if (removed != null) {
+                personalBests.remove(removed.first());
+            }
+        }
+
+        private synchronized LeaderboardPosition getPosition(String playerName, int radius) {
+            TreeSet<Entry> entries = playerTimes.get(playerName);
+            if (entries == null) {
+                return null;
+            }
+
+            int rank = personalBests.rank(entries.first());
+            int from = Math.max(0, rank - radius);
+            int to = Math.min(personalBests.size() - 1, rank + radius);
+
+            List<TimeObject> neighbours = new ArrayList<>(to - from + 1);
+            for (int i = from; i <= to; i++) {
+                neighbours.add(personalBests.get(i).time);
+            }
+            return new LeaderboardPosition(rank + 1, personalBests.size(), from + 1, neighbours);
+        }
+
+        private synchronized int getTotalPlayers() {
+            return personalBests.size();
+        }
+
+        private synchronized int getTotalTimes() {
+            int total = 0;
+            for (TreeSet<Entry> entries : playerTimes.values()) {
+                total += entries.size();
+            }
+            return total;
+        }
+
+        private synchronized boolean contains(TimeObject time) {
+            TreeSet<Entry> entries = playerTimes.get(time.getPlayer());
+            if (entries == null) {
+                return false;
+            }
+
+            for (Entry entry : entries) {
+                if (entry.time.getTime() == time.getTime() && entry.time.getDeaths() == time.getDeaths()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private synchronized List<TimeObject> getTopResults(int limit) {
+            int size = Math.min(limit, personalBests.size());
+            List<TimeObject> results = new ArrayList<>(size);
+
+            for (int i = 0; i < size; i++) {
+                results.add(personalBests.get(i).time);
+            }
+            return results;
+        }
+
+        private synchronized List<TimeObject> getTopPlayerResults(String playerName, int limit) {
+            TreeSet<Entry> entries = playerTimes.get(playerName);
+            return entries == null ? new ArrayList<>() : collect(entries, limit);
+        }
+
+        private synchronized TimeObject getBestResult() {
+            return personalBests.isEmpty() ? null : personalBests.get(0).time;
+        }
+
+        private synchronized TimeObject getPersonalBest(String playerName) {
+            TreeSet<Entry> entries = playerTimes.get(playerName);
+            return entries == null ? null : entries.first().time;
+        }
+
+        private static List<TimeObject> collect(TreeSet<Entry> entries, int limit) {
+            List<TimeObject> results = new ArrayList<>(Math.min(limit, entries.size()));
+            Iterator<Entry> iterator = entries.iterator();
+
+            while (iterator.hasNext() && results.size() < limit) {
+                results.add(iterator.next().time);
+            }
+            return results;
+        }
+    }
+
+    /**
+     * A time within a leaderboard, equal times are ordered by when they were added.
+     */
+    private static class Entry implements Comparable<Entry> {
+
+        private final TimeObject time;
+        private final long sequence;
+
+        private Entry(TimeObject time, long sequence) {
+            this.time = time;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int result = Long.compare(time.getTime(), other.time.getTime());
+            return result != 0 ? result : Long.compare(sequence, other.sequence);
+        }
+    }
+}
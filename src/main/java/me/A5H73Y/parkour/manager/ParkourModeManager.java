@@ -0,0 +1,130 @@
+package me.A5H73Y.parkour.manager;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+
+import me.A5H73Y.parkour.Parkour;
+import me.A5H73Y.parkour.enums.ParkourMode;
+import me.A5H73Y.parkour.player.ParkourSession;
+import me.A5H73Y.parkour.player.PlayerMethods;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.potion.PotionEffect;
+import org.bukkit.potion.PotionEffectType;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * Potion effects of the ParkourModes, such as Drunk, Darkness and Moon.
+ * The effect is given when the player joins the course and removed when they leave.
+ * In between, a repeating task gives it back to anyone who has lost it, such as from a 'nopotion' block.
+ */
+public class ParkourModeManager {
+
+    private static final int EFFECT_DURATION = 10000;
+    private static final long REASSERT_INTERVAL = 100;
+
+    private static ParkourModeManager instance;
+
+    private final Map<ParkourMode, PotionEffect> effects = new EnumMap<>(ParkourMode.class);
+    // only the players on a course with an effect mode
+    private final Map<UUID, ParkourMode> players = new HashMap<>();
+    private BukkitTask reassertTask;
+
+    private ParkourModeManager() {
+        loadEffects();
+    }
+
+    public static ParkourModeManager getInstance() {
+        if (instance == null) {
+            instance = new ParkourModeManager();
+        }
+
+        return instance;
+    }
+
+    /**
+     * Build the effect of each mode from the config.
+     */
+    public void loadEffects() {
+        effects.clear();
+        effects.put(ParkourMode.DRUNK, new PotionEffect(PotionEffectType.CONFUSION, EFFECT_DURATION, 1));
+        effects.put(ParkourMode.DARKNESS, new PotionEffect(PotionEffectType.BLINDNESS, EFFECT_DURATION, 1));
+        effects.put(ParkourMode.MOON, new PotionEffect(PotionEffectType.JUMP, EFFECT_DURATION,
+                Parkour.getPlugin().getConfig().getInt("ParkourModes.Moon.Strength")));
+    }
+
+    /**
+     * Start the task which gives players back the effect of their mode.
+     * Has no effect if the task is already running.
+     */
+    public void start() {
+        if (reassertTask != null) {
+            return;
+        }
+
+        reassertTask = Bukkit.getScheduler().runTaskTimer(Parkour.getPlugin(),
+                this::reassertEffects, REASSERT_INTERVAL, REASSERT_INTERVAL);
+    }
+
+    /**
+     * Give the player the effect of the mode, if it has one.
+     *
+     * @param player
+     * @param mode
+     */
+    public void applyEffects(Player player, ParkourMode mode) {
+        PotionEffect effect = effects.get(mode);
+
+        if (effect == null) {
+            return;
+        }
+
+        players.put(player.getUniqueId(), mode);
+        player.addPotionEffect(effect);
+    }
+
+    /**
+     * Remove the effect of the mode from the player.
+     *
+     * @param player
+     * @param mode
+     */
+    public void removeEffects(Player player, ParkourMode mode) {
+        PotionEffect effect = effects.get(mode);
+
+        if (players.remove(player.getUniqueId()) != null && effect != null) {
+            player.removePotionEffect(effect.getType());
+        }
+    }
+
+    private void reassertEffects() {
+        Iterator<Map.Entry<UUID, ParkourMode>> iterator = players.entrySet().iterator();
+
+        while (iterator.hasNext()) {
+            Map.Entry<UUID, ParkourMode> entry = iterator.next();
+            Player player = Bukkit.getPlayer(entry.getKey());
+
+            // the session stays while they're offline, but they'll be given the effect again when they return
+            if (player == null) {
+                iterator.remove();
+                continue;
+            }
+
+            ParkourSession session = PlayerMethods.getParkourSession(player);
+
+            if (session == null || session.getMode() != entry.getValue()) {
+                iterator.remove();
+                continue;
+            }
+
+            PotionEffect effect = effects.get(entry.getValue());
+
+            if (!player.hasPotionEffect(effect.getType())) {
+                player.addPotionEffect(effect);
+            }
+        }
+    }
+}
@@ -26,11 +26,13 @@ public class QuietModeManager {
 
     public void enableQuietMode(Player player) {
         quietPlayers.add(player.getName());
+        SessionClockManager.getInstance().setDisplay(player.getName(), false);
         Utils.sendActionBar(player, getInstance().quietOnMessage, true);
     }
 
     public void disableQuietMode(Player player) {
         quietPlayers.remove(player.getName());
+        SessionClockManager.getInstance().setDisplay(player.getName(), true);
         Utils.sendActionBar(player, getInstance().quietOffMessage, true);
     }
 
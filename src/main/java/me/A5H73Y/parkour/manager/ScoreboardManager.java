@@ -1,11 +1,15 @@
 package me.A5H73Y.parkour.manager;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import me.A5H73Y.parkour.Parkour;
+import me.A5H73Y.parkour.course.Course;
 import me.A5H73Y.parkour.course.CourseMethods;
+import me.A5H73Y.parkour.other.LeaderboardPosition;
 import me.A5H73Y.parkour.other.TimeObject;
 import me.A5H73Y.parkour.utilities.DatabaseMethods;
 import me.A5H73Y.parkour.utilities.Utils;
@@ -28,6 +32,7 @@ public class ScoreboardManager {
     private final String BEST_TIME_EVER_NAME = ChatColor.BLUE.toString();
     private final String BEST_TIME_EVER_ME = ChatColor.DARK_AQUA.toString();
     private final String CURRENT_TIME = ChatColor.DARK_BLUE.toString();
+    private final String MY_POSITION = ChatColor.DARK_GRAY.toString();
 
     private final String titleFormat;
     private final String textFormat;
@@ -52,6 +57,7 @@ public class ScoreboardManager {
         configKey.put(BEST_TIME_EVER_ME, defaultConfig.getBoolean("Scoreboard.Display.BestTimeByMe"));
         configKey.put(CURRENT_TIME, defaultConfig.getBoolean("Scoreboard.Display.CurrentTime")
                 && defaultConfig.getBoolean("OnCourse.DisplayLiveTime"));
+        configKey.put(MY_POSITION, defaultConfig.getBoolean("Scoreboard.Display.MyPosition"));
 
         translationKey.put("mainHeading", stringsConfig.getString("Scoreboard.MainHeading"));
         translationKey.put("notCompleted", stringsConfig.getString("Scoreboard.NotCompleted"));
@@ -60,6 +66,7 @@ public class ScoreboardManager {
         translationKey.put(BEST_TIME_EVER_NAME, stringsConfig.getString("Scoreboard.BestTimeNameTitle"));
         translationKey.put(BEST_TIME_EVER_ME, stringsConfig.getString("Scoreboard.MyBestTimeTitle"));
         translationKey.put(CURRENT_TIME, stringsConfig.getString("Scoreboard.CurrentTimeTitle"));
+        translationKey.put(MY_POSITION, stringsConfig.getString("Scoreboard.MyPositionTitle"));
 
         this.numberOfRowsNeeded = calculateNumberOfRowsNeeded();
     }
@@ -68,20 +75,49 @@ public class ScoreboardManager {
         return enabled;
     }
 
+    /**
+     * Display the scoreboard to the player.
+     * The results are retrieved asynchronously, the scoreboard is displayed once they are available.
+     *
+     * @param player
+     */
     public void addScoreboard(Player player) {
         if (!this.enabled) {
             return;
         }
 
-        Scoreboard board = setupScoreboard(player);
-
-        if (Parkour.getSettings().isPreventPlayerCollisions() && Utils.getMinorServerVersion() > 8) {
-            Team team = board.registerNewTeam("parkour");
-            team.setOption(Team.Option.COLLISION_RULE, Team.OptionStatus.NEVER);
-            team.addEntry(player.getName());
-        }
-
-        player.setScoreboard(board);
+        String playerName = player.getName();
+        String courseName = CourseMethods.findByPlayer(playerName).getName();
+
+        CompletableFuture<List<TimeObject>> courseRecord = configKey.get(BEST_TIME_EVER) || configKey.get(BEST_TIME_EVER_NAME)
+                ? DatabaseMethods.getTopCourseResultsAsync(courseName, 1) : CompletableFuture.completedFuture(Collections.emptyList());
+        CompletableFuture<List<TimeObject>> personalRecord = configKey.get(BEST_TIME_EVER_ME)
+                ? DatabaseMethods.getTopPlayerCourseResultsAsync(playerName, courseName, 1) : CompletableFuture.completedFuture(Collections.emptyList());
+        CompletableFuture<LeaderboardPosition> position = configKey.get(MY_POSITION)
+                ? DatabaseMethods.getLeaderboardPositionAsync(playerName, courseName, 0) : CompletableFuture.completedFuture(null);
+
+        DatabaseQueryManager.getInstance().thenSync(CompletableFuture.allOf(courseRecord, personalRecord, position), ignored -> {
+            // the player may have left the course while the results were retrieved
+            Course course = CourseMethods.findByPlayer(playerName);
+            if (!player.isOnline() || course == null || !course.getName().equals(courseName)) {
+                return;
+            }
+
+            PlayerScoreboard playerScoreboard = new PlayerScoreboard(playerName, courseName);
+            playerScoreboard.courseRecord = getFirst(courseRecord.join());
+            playerScoreboard.personalRecord = getFirst(personalRecord.join());
+            playerScoreboard.position = position.join();
+
+            Scoreboard board = setupScoreboard(playerScoreboard);
+
+            if (Parkour.getSettings().isPreventPlayerCollisions() && Utils.getMinorServerVersion() > 8) {
+                Team team = board.registerNewTeam("parkour");
+                team.setOption(Team.Option.COLLISION_RULE, Team.OptionStatus.NEVER);
+                team.addEntry(playerName);
+            }
+
+            player.setScoreboard(board);
+        });
     }
 
     public void updateScoreboardTimer(Player player, String liveTime) {
@@ -91,24 +127,30 @@ public class ScoreboardManager {
             return;
         }
 
-        board.getTeam(CURRENT_TIME).setPrefix(convertText(liveTime));
+        // the scoreboard may not have been displayed yet
+        Team team = board.getTeam(CURRENT_TIME);
+        if (team != null) {
+            team.setPrefix(convertText(liveTime));
+        }
     }
 
-    private Scoreboard setupScoreboard(Player player) {
+    private Scoreboard setupScoreboard(PlayerScoreboard playerScoreboard) {
         String mainHeading = Utils.colour(translationKey.get("mainHeading"));
 
         // Set up the scoreboard itself
         Scoreboard board = Bukkit.getScoreboardManager().getNewScoreboard();
-        Objective objective = board.registerNewObjective(player.getName(), "Parkour");
+        Objective objective = board.registerNewObjective(playerScoreboard.playerName, "Parkour");
         objective.setDisplayName(mainHeading);
         objective.setDisplaySlot(DisplaySlot.SIDEBAR);
 
-        PlayerScoreboard playerScoreboard = new PlayerScoreboard(player.getName(), board, objective);
+        playerScoreboard.scoreboard = board;
+        playerScoreboard.objective = objective;
 
         addCourseName(playerScoreboard);
         addBestTimeEver(playerScoreboard);
         addBestTimeEverName(playerScoreboard);
         addBestTimeEverMe(playerScoreboard);
+        addMyPosition(playerScoreboard);
         addCurrentTime(playerScoreboard);
 
         return board;
@@ -127,8 +169,8 @@ public class ScoreboardManager {
             return;
         }
 
-        List<TimeObject> result = DatabaseMethods.getTopCourseResults(playerBoard.courseName, 1);
-        String bestTimeEver = result.size() > 0 ? Utils.displayCurrentTime(result.get(0).getTime()) : translationKey.get("notCompleted");
+        TimeObject result = playerBoard.courseRecord;
+        String bestTimeEver = result != null ? Utils.displayCurrentTime(result.getTime()) : translationKey.get("notCompleted");
         print(playerBoard, bestTimeEver, BEST_TIME_EVER);
     }
 
@@ -137,8 +179,8 @@ public class ScoreboardManager {
             return;
         }
 
-        List<TimeObject> result = DatabaseMethods.getTopCourseResults(playerBoard.courseName, 1);
-        String bestTimeName = result.size() > 0 ? result.get(0).getPlayer() : translationKey.get("notCompleted");
+        TimeObject result = playerBoard.courseRecord;
+        String bestTimeName = result != null ? result.getPlayer() : translationKey.get("notCompleted");
         print(playerBoard, bestTimeName, BEST_TIME_EVER_NAME);
     }
 
@@ -147,11 +189,21 @@ public class ScoreboardManager {
             return;
         }
 
-        List<TimeObject> result = DatabaseMethods.getTopPlayerCourseResults(playerBoard.playerName, playerBoard.courseName, 1);
-        String bestTime = result.size() > 0 ? Utils.displayCurrentTime(result.get(0).getTime()) : translationKey.get("notCompleted");
+        TimeObject result = playerBoard.personalRecord;
+        String bestTime = result != null ? Utils.displayCurrentTime(result.getTime()) : translationKey.get("notCompleted");
         print(playerBoard, bestTime, BEST_TIME_EVER_ME);
     }
 
+    private void addMyPosition(PlayerScoreboard playerBoard) {
+        if (!configKey.get(MY_POSITION)) {
+            return;
+        }
+
+        LeaderboardPosition position = playerBoard.position;
+        String myPosition = position != null ? "#" + position.getPosition() + " / " + position.getTotal() : translationKey.get("notCompleted");
+        print(playerBoard, myPosition, MY_POSITION);
+    }
+
     private void addCurrentTime(PlayerScoreboard playerBoard) {
         if (!configKey.get(CURRENT_TIME)) {
             return;
@@ -188,6 +240,10 @@ public class ScoreboardManager {
         return text;
     }
 
+    private TimeObject getFirst(List<TimeObject> results) {
+        return results == null || results.isEmpty() ? null : results.get(0);
+    }
+
     public void removeScoreboard(Player player) {
         if (this.enabled) {
             player.setScoreboard(Bukkit.getScoreboardManager().getNewScoreboard());
@@ -214,6 +270,9 @@ public class ScoreboardManager {
         if (configKey.get(CURRENT_TIME)) {
             rowsNeeded += 2;
         }
+        if (configKey.get(MY_POSITION)) {
+            rowsNeeded += 2;
+        }
         return rowsNeeded;
     }
 
@@ -226,11 +285,13 @@ public class ScoreboardManager {
         private Scoreboard scoreboard;
         private Objective objective;
 
-        public PlayerScoreboard(String playerName, Scoreboard scoreboard, Objective objective) {
+        private TimeObject courseRecord;
+        private TimeObject personalRecord;
+        private LeaderboardPosition position;
+
+        public PlayerScoreboard(String playerName, String courseName) {
             this.playerName = playerName;
-            this.courseName = CourseMethods.findByPlayer(playerName).getName();
-            this.scoreboard = scoreboard;
-            this.objective = objective;
+            this.courseName = courseName;
         }
 
         public int getDecreaseCount() {
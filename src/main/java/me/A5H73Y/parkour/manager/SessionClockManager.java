@@ -0,0 +1,170 @@
+package me.A5H73Y.parkour.manager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import me.A5H73Y.parkour.Parkour;
+import me.A5H73Y.parkour.player.ParkourSession;
+import me.A5H73Y.parkour.player.PlayerMethods;
+import me.A5H73Y.parkour.utilities.Static;
+import me.A5H73Y.parkour.utilities.Utils;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.Sound;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * A single clock for the time of every ParkourSession.
+ * Once a second it advances each session's timer, displays the live time and
+ * makes any player who has run out of time leave the course.
+ */
+public class SessionClockManager {
+
+    // times up to this many seconds are formatted once, rather than every second for every player
+    private static final int CACHED_TIMES = 7200;
+
+    private static SessionClockManager instance;
+
+    private final String[] times = new String[CACHED_TIMES];
+    private final Sound timerSound;
+    private final List<TimedSession> sessions = new ArrayList<>();
+    private final List<Player> expired = new ArrayList<>();
+    private BukkitTask clockTask;
+
+    private SessionClockManager() {
+        for (int seconds = 0; seconds < times.length; seconds++) {
+            times[seconds] = Utils.convertSecondsToTime(seconds);
+        }
+        timerSound = Sound.valueOf(Utils.getTimerSound());
+    }
+
+    public static SessionClockManager getInstance() {
+        if (instance == null) {
+            instance = new SessionClockManager();
+        }
+
+        return instance;
+    }
+
+    /**
+     * Start the clock.
+     * Has no effect if the clock is already running.
+     */
+    public void start() {
+        if (clockTask != null) {
+            return;
+        }
+
+        clockTask = Bukkit.getScheduler().runTaskTimer(Parkour.getPlugin(), this::tick, 20, 20);
+    }
+
+    /**
+     * Start timing the player's session.
+     * The session is timed until the player leaves the course or the server.
+     *
+     * @param player
+     * @param session
+     */
+    public void addSession(Player player, ParkourSession session) {
+        removeSession(player.getName());
+        boolean display = !QuietModeManager.getInstance().isInQuietMode(player.getName());
+        sessions.add(new TimedSession(player, session, display));
+    }
+
+    /**
+     * Stop timing the player's session.
+     *
+     * @param playerName
+     */
+    public void removeSession(String playerName) {
+        sessions.removeIf(timed -> timed.player.getName().equals(playerName));
+    }
+
+    /**
+     * Change whether the live time is displayed to the player.
+     * Called whenever the player toggles quiet mode.
+     *
+     * @param playerName
+     * @param display
+     */
+    public void setDisplay(String playerName, boolean display) {
+        for (TimedSession timed : sessions) {
+            if (timed.player.getName().equals(playerName)) {
+                timed.display = display;
+            }
+        }
+    }
+
+    private void tick() {
+        boolean displayTime = Parkour.getPlugin().getConfig().getBoolean("OnCourse.DisplayLiveTime");
+        boolean useScoreboard = Parkour.getScoreboardManager().isEnabled()
+                && Parkour.getPlugin().getConfig().getBoolean("Scoreboard.Display.CurrentTime");
+        boolean useActionBar = Static.getBountifulAPI();
+
+        int alive = 0;
+        for (int i = 0; i < sessions.size(); i++) {
+            TimedSession timed = sessions.get(i);
+            Player player = timed.player;
+            ParkourSession session = timed.session;
+
+            // the session is finished with once they leave the course or the server
+            if (!player.isOnline() || PlayerMethods.getParkourSession(player) != session) {
+                continue;
+            }
+            sessions.set(alive++, timed);
+
+            boolean hasMaxTime = session.getCourse().hasMaxTime();
+            int seconds = session.tickTimer();
+            String liveTime = getTime(seconds);
+
+            if (hasMaxTime && (seconds <= 5 || seconds == 10)) {
+                liveTime = ChatColor.RED + liveTime;
+                if (displayTime && timed.display) {
+                    player.playSound(player.getLocation(), timerSound, 2.0f, 1.75f);
+                }
+            }
+            session.setLiveTime(liveTime);
+
+            if (displayTime && timed.display) {
+                if (useScoreboard) {
+                    Parkour.getScoreboardManager().updateScoreboardTimer(player, liveTime);
+
+                } else if (useActionBar) {
+                    Utils.sendActionBar(player, liveTime, true);
+                }
+            }
+
+            if (hasMaxTime && seconds <= 0) {
+                expired.add(player);
+            }
+        }
+        sessions.subList(alive, sessions.size()).clear();
+
+        // leaving the course changes the sessions, so it's done once they've all been updated
+        for (Player player : expired) {
+            ParkourSession session = PlayerMethods.getParkourSession(player);
+            player.sendMessage(Utils.getTranslation("Parkour.MaxTime")
+                    .replace("%TIME%", getTime(session.getCourse().getMaxTime())));
+            PlayerMethods.playerLeave(player);
+        }
+        expired.clear();
+    }
+
+    private String getTime(int seconds) {
+        return seconds >= 0 && seconds < times.length ? times[seconds] : Utils.convertSecondsToTime(seconds);
+    }
+
+    private static class TimedSession {
+
+        private final Player player;
+        private final ParkourSession session;
+        private boolean display;
+
+        private TimedSession(Player player, ParkourSession session, boolean display) {
+            this.player = player;
+            this.session = session;
+            this.display = display;
+        }
+    }
+}
@@ -0,0 +1,355 @@
+package me.A5H73Y.parkour.manager;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import me.A5H73Y.parkour.Parkour;
+import me.A5H73Y.parkour.enums.ParkourMode;
+import me.A5H73Y.parkour.player.ParkourSession;
+import me.A5H73Y.parkour.player.PlayerMethods;
+import me.A5H73Y.parkour.player.SessionSnapshot;
+import me.A5H73Y.parkour.player.SessionState;
+import me.A5H73Y.parkour.utilities.Static;
+import me.A5H73Y.parkour.utilities.Utils;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * Append-only journal of the changes to the ParkourSessions, so they survive the server crashing.
+ * The server thread only queues each change, a single writer thread appends them to the journal in batches.
+ * Every so often the sessions are compacted into the snapshot, and the journal starts again empty.
+ * On startup the snapshot is loaded and the journal replayed over it.
+ */
+public class SessionJournalManager {
+
+    private static final byte STARTED = 1;
+    private static final byte UPDATED = 2;
+    private static final byte ENDED = 3;
+
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final long COMPACT_INTERVAL = 6000;
+    private static final long SHUTDOWN_TIMEOUT = 10000;
+    private static final JournalRecord SHUTDOWN = new JournalRecord((byte) 0, null);
+
+    private static SessionJournalManager instance;
+
+    private final File journalFile = new File(Static.SESSIONS_JOURNAL_PATH);
+    private final File snapshotFile = new File(Static.SESSIONS_PATH);
+    private final BlockingQueue<JournalRecord> queue = new LinkedBlockingQueue<>();
+    private volatile boolean running;
+    private boolean changed;
+    private Thread writer;
+    private BukkitTask compactTask;
+
+    private SessionJournalManager() {
+    }
+
+    public static SessionJournalManager getInstance() {
+        if (instance == null) {
+            instance = new SessionJournalManager();
+        }
+
+        return instance;
+    }
+
+    /**
+     * Load the snapshot and replay the journal over it.
+     *
+     * @return the state of each session, by player UUID
+     */
+    public Map<UUID, SessionState> recoverSessions() {
+        Map<UUID, SessionState> states = snapshotFile.exists()
+                ? SessionSnapshot.read(snapshotFile) : new LinkedHashMap<>();
+
+        if (!journalFile.exists()) {
+            return states;
+        }
+
+        int replayed = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(journalFile)))) {
+            while (true) {
+                byte type;
+                try {
+                    type = in.readByte();
+                } catch (EOFException e) {
+                    break;
+                }
+
+                if (type == STARTED) {
+                    SessionState state = SessionState.readFrom(in);
+                    states.put(state.getPlayerId(), state);
+
+                } else if (type == UPDATED) {
+                    UUID playerId = new UUID(in.readLong(), in.readLong());
+                    ParkourMode mode = SessionState.lookupMode(in.readUTF());
+                    int checkpoint = in.readInt();
+                    int deaths = in.readInt();
+                    long time = in.readLong();
+                    int seconds = in.readInt();
+
+                    SessionState state = states.get(playerId);
+                    if (state != null) {
+                        state.setProgress(mode, checkpoint, deaths, time, seconds);
+                    }
+
+                } else if (type == ENDED) {
+                    states.remove(new UUID(in.readLong(), in.readLong()));
+
+                } else {
+                    throw new IOException("Unknown record type " + type);
+                }
+                replayed++;
+            }
+
+        } catch (EOFException e) {
+            // the server stopped part way through writing the last record
+            Utils.log("Session journal ends with an incomplete change, which has been ignored.", 1);
+
+        } catch (IOException e) {
+            Utils.log("Failed to replay the session journal: " + e.getMessage(), 2);
+        }
+
+        if (replayed > 0) {
+            Utils.log("Replayed " + replayed + " session changes from the journal.");
+        }
+        return states;
+    }
+
+    /**
+     * Start the writer thread and the compaction task.
+     * The sessions are compacted straight away, so the journal only holds changes made from now on.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+
+        SessionSnapshot.write(SessionSnapshot.capture(PlayerMethods.getPlaying()), snapshotFile);
+        truncateJournal();
+
+        running = true;
+        writer = new Thread(this::processQueue, "Parkour-SessionJournal");
+        writer.setDaemon(true);
+        writer.start();
+
+        compactTask = Bukkit.getScheduler().runTaskTimer(Parkour.getPlugin(),
+                this::compact, COMPACT_INTERVAL, COMPACT_INTERVAL);
+    }
+
+    /**
+     * Stop the writer thread, and compact every session into the snapshot.
+     * The sessions are only compacted once the writer has exited, otherwise it could still be appending to the journal.
+     * If it hasn't exited in time, the snapshot and journal are left for the sessions to be recovered from.
+     */
+    public synchronized void shutdown() {
+        if (compactTask != null) {
+            compactTask.cancel();
+            compactTask = null;
+        }
+
+        // the writer may have already stopped, if it failed to write to the journal
+        if (writer != null) {
+            running = false;
+            queue.add(SHUTDOWN);
+
+            try {
+                writer.join(SHUTDOWN_TIMEOUT);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            if (writer.isAlive()) {
+                Utils.log("Session journal writer didn't finish within " + SHUTDOWN_TIMEOUT / 1000
+                        + " seconds, the sessions will be recovered from the journal.", 1);
+                writer = null;
+                return;
+            }
+            writer = null;
+        }
+
+        queue.clear();
+        SessionSnapshot.write(SessionSnapshot.capture(PlayerMethods.getPlaying()), snapshotFile);
+        truncateJournal();
+    }
+
+    /**
+     * Record that the player has started a session.
+     *
+     * @param player
+     * @param session
+     */
+    public void sessionStarted(Player player, ParkourSession session) {
+        enqueue(new JournalRecord(STARTED, SessionState.of(player.getUniqueId(), player.getName(), session)));
+    }
+
+    /**
+     * Record the player's progress through their session.
+     *
+     * @param player
+     * @param session
+     */
+    public void sessionUpdated(Player player, ParkourSession session) {
+        enqueue(new JournalRecord(UPDATED, SessionState.of(player.getUniqueId(), player.getName(), session)));
+    }
+
+    /**
+     * Record that the player's session has ended.
+     *
+     * @param player
+     */
+    public void sessionEnded(Player player) {
+        sessionEnded(player.getUniqueId());
+    }
+
+    /**
+     * Record that the player's session has ended, whether or not they're online.
+     *
+     * @param playerId
+     */
+    public void sessionEnded(UUID playerId) {
+        enqueue(new JournalRecord(ENDED, new SessionState(playerId, null, null, null, 0, 0, 0, 0)));
+    }
+
+    private void enqueue(JournalRecord record) {
+        if (!running) {
+            return;
+        }
+
+        changed = true;
+        queue.add(record);
+    }
+
+    /**
+     * Capture the sessions on the server thread, and have the writer replace the snapshot and empty the journal.
+     * The writer handles it in order with the other changes, so nothing queued after it is lost.
+     */
+    private void compact() {
+        if (!running || !changed) {
+            return;
+        }
+
+        changed = false;
+        queue.add(new JournalRecord((byte) 0, null, SessionSnapshot.capture(PlayerMethods.getPlaying())));
+    }
+
+    private void processQueue() {
+        List<JournalRecord> batch = new ArrayList<>();
+        DataOutputStream out = null;
+
+        try {
+            while (true) {
+                try {
+                    batch.add(queue.take());
+                } catch (InterruptedException e) {
+                    break;
+                }
+
+                queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+
+                for (JournalRecord record : batch) {
+                    if (record == SHUTDOWN) {
+                        return;
+                    }
+
+                    if (record.snapshot != null) {
+                        closeQuietly(out);
+                        out = null;
+                        SessionSnapshot.write(record.snapshot, snapshotFile);
+                        truncateJournal();
+                        continue;
+                    }
+
+                    if (out == null) {
+                        out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(journalFile, true)));
+                    }
+                    writeRecord(out, record);
+                }
+
+                if (out != null) {
+                    out.flush();
+                }
+                batch.clear();
+            }
+
+        } catch (IOException e) {
+            // stop journalling, the sessions are still saved to the snapshot on shutdown
+            running = false;
+            queue.clear();
+            Utils.log("Failed to write to the session journal: " + e.getMessage(), 2);
+
+        } finally {
+            closeQuietly(out);
+        }
+    }
+
+    private void writeRecord(DataOutputStream out, JournalRecord record) throws IOException {
+        SessionState state = record.state;
+        out.writeByte(record.type);
+
+        if (record.type == STARTED) {
+            state.writeTo(out);
+            return;
+        }
+
+        out.writeLong(state.getPlayerId().getMostSignificantBits());
+        out.writeLong(state.getPlayerId().getLeastSignificantBits());
+
+        if (record.type == UPDATED) {
+            out.writeUTF(state.getMode().name());
+            out.writeInt(state.getCheckpoint());
+            out.writeInt(state.getDeaths());
+            out.writeLong(state.getTime());
+            out.writeInt(state.getSeconds());
+        }
+    }
+
+    private void truncateJournal() {
+        if (journalFile.exists() && !journalFile.delete()) {
+            Utils.log("Failed to empty the session journal.", 2);
+        }
+    }
+
+    private static void closeQuietly(DataOutputStream out) {
+        if (out == null) {
+            return;
+        }
+
+        try {
+            out.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static class JournalRecord {
+
+        private final byte type;
+        private final SessionState state;
+        private final List<SessionState> snapshot;
+
+        private JournalRecord(byte type, SessionState state) {
+            this(type, state, null);
+        }
+
+        private JournalRecord(byte type, SessionState state, List<SessionState> snapshot) {
+            this.type = type;
+            this.state = state;
+            this.snapshot = snapshot;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package me.A5H73Y.parkour.manager;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import me.A5H73Y.parkour.utilities.DatabaseMethods;
+import me.A5H73Y.parkour.utilities.Utils;
+
+/**
+ * In-memory count of each course's votes, and the courses each online player has voted for.
+ * The counts are loaded from the database on startup and kept up to date as votes are inserted.
+ * A player's votes are loaded when they join the server, and discarded when they leave.
+ */
+public class VoteManager {
+
+    private static VoteManager instance;
+
+    private final Map<String, CourseVotes> courseVotes = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> playerVotes = new ConcurrentHashMap<>();
+    private final Set<String> loadedPlayers = ConcurrentHashMap.newKeySet();
+    private volatile boolean loaded;
+
+    private VoteManager() {
+    }
+
+    public static VoteManager getInstance() {
+        if (instance == null) {
+            instance = new VoteManager();
+        }
+
+        return instance;
+    }
+
+    /**
+     * Populate the vote counts for every course in the database.
+     * Until this has succeeded, percentages should be retrieved from the database instead.
+     */
+    public void loadVotes() {
+        Map<String, int[]> voteCounts = DatabaseMethods.getAllVoteCounts();
+        if (voteCounts == null) {
+            Utils.log("Unable to load the course votes, results will be retrieved from the database.", 1);
+            return;
+        }
+
+        courseVotes.clear();
+        for (Map.Entry<String, int[]> entry : voteCounts.entrySet()) {
+            courseVotes.put(entry.getKey(), new CourseVotes(entry.getValue()[0], entry.getValue()[1]));
+        }
+
+        loaded = true;
+        Utils.log("Loaded votes for " + courseVotes.size() + " courses.");
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Load the courses the player has voted for, in the background.
+     * The player's entry is created straight away, so votes made while loading are kept.
+     * The loaded votes are discarded if the player has left, or rejoined, in the meantime.
+     *
+     * @param playerName
+     */
+    public void loadPlayerVotes(String playerName) {
+        Set<String> votes = ConcurrentHashMap.newKeySet();
+        loadedPlayers.remove(playerName);
+        playerVotes.put(playerName, votes);
+
+        DatabaseQueryManager.getInstance().supplyAsync(() -> DatabaseMethods.getPlayerVotes(playerName))
+                .thenAccept(courses -> {
+                    if (courses == null) {
+                        return;
+                    }
+
+                    playerVotes.computeIfPresent(playerName, (name, existing) -> {
+                        if (existing == votes) {
+                            existing.addAll(courses);
+                            loadedPlayers.add(name);
+                        }
+                        return existing;
+                    });
+                });
+    }
+
+    public void unloadPlayerVotes(String playerName) {
+        playerVotes.remove(playerName);
+        loadedPlayers.remove(playerName);
+    }
+
+    public boolean isPlayerLoaded(String playerName) {
+        return loadedPlayers.contains(playerName);
+    }
+
+    /**
+     * Calculate the percentage of how many players liked the course.
+     *
+     * @param courseName
+     * @return percentage of likes, 0 if nobody has voted
+     */
+    public double getVotePercent(String courseName) {
+        CourseVotes votes = courseVotes.get(courseName.toLowerCase());
+        return votes == null ? 0 : votes.getPercent();
+    }
+
+    /**
+     * Check if the player has voted for the course.
+     * Only valid once the player's votes have been loaded, until then only votes made since joining are known.
+     *
+     * @param playerName
+     * @param courseName
+     * @return player has voted
+     */
+    public boolean hasVoted(String playerName, String courseName) {
+        Set<String> votes = playerVotes.get(playerName);
+        return votes != null && votes.contains(courseName.toLowerCase());
+    }
+
+    /**
+     * Record the player's vote, so they aren't able to vote again.
+     *
+     * @param playerName
+     * @param courseName
+     */
+    public void setVoted(String playerName, String courseName) {
+        playerVotes.computeIfPresent(playerName, (name, votes) -> {
+            votes.add(courseName.toLowerCase());
+            return votes;
+        });
+    }
+
+    /**
+     * Include the vote in the course's counts, once it has been saved.
+     *
+     * @param courseName
+     * @param liked
+     */
+    public void addVote(String courseName, boolean liked) {
+        courseVotes.computeIfAbsent(courseName.toLowerCase(), name -> new CourseVotes(0, 0)).add(liked);
+    }
+
+    public void removeCourse(String courseName) {
+        courseVotes.remove(courseName.toLowerCase());
+        for (Set<String> votes : playerVotes.values()) {
+            votes.remove(courseName.toLowerCase());
+        }
+    }
+
+    /**
+     * The number of votes for a single course.
+     */
+    private static class CourseVotes {
+
+        private int total;
+        private int likes;
+
+        private CourseVotes(int total, int likes) {
+            this.total = total;
+            this.likes = likes;
+        }
+
+        private synchronized void add(boolean liked) {
+            total++;
+            if (liked) {
+                likes++;
+            }
+        }
+
+        private synchronized double getPercent() {
+            return total > 0 ? ((likes * 1.0 / total) * 100) : 0;
+        }
+    }
+}
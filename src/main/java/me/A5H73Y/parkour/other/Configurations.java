@@ -2,15 +2,39 @@ package me.A5H73Y.parkour.other;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import me.A5H73Y.parkour.Parkour;
+import me.A5H73Y.parkour.course.CourseInfo;
 import me.A5H73Y.parkour.kit.ParkourKitInfo;
+import me.A5H73Y.parkour.manager.AutoStartManager;
+import me.A5H73Y.parkour.manager.ParkourModeManager;
+import me.A5H73Y.parkour.player.PlayerProfile;
 import me.A5H73Y.parkour.utilities.Static;
 import me.A5H73Y.parkour.utilities.Utils;
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
 import org.bukkit.Particle;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
 
 public class Configurations {
 
@@ -19,6 +43,18 @@ public class Configurations {
 
     private boolean freshInstall = false;
 
+    // courses.yml and players.yml are saved at most once per interval, in the background
+    private boolean coursesDirty, usersDirty;
+    private BukkitTask saveTask;
+    private ExecutorService fileWriter;
+
+    // each player's information is kept in their own file, loaded while they are online
+    private File playerDataFolder;
+    private final Map<UUID, PlayerProfile> profiles = new ConcurrentHashMap<>();
+    private final Set<UUID> dirtyPlayers = new HashSet<>();
+    // profiles still waiting to be written, their file is out of date until then
+    private final Map<UUID, PlayerProfile> unwrittenProfiles = new ConcurrentHashMap<>();
+
     /**
      * This no longer generates the default config.yml to allow the ability of creating a backup of the existing config.
      */
@@ -40,6 +76,7 @@ public class Configurations {
         checkData = new YamlConfiguration();
         kitFile = new File(dataFolder, "parkourkit.yml");
         kitData = new YamlConfiguration();
+        playerDataFolder = new File(dataFolder, "playerdata");
 
         // courses
         if (!courseFile.exists()) {
@@ -126,15 +163,18 @@ public class Configurations {
 
     public void saveAll() {
         saveCheck();
-        saveCourses();
         saveInv();
         saveStrings();
-        saveUsers();
         saveParkourKit();
+        coursesDirty = true;
+        usersDirty = true;
+        flush();
         Parkour.getPlugin().saveConfig();
     }
 
     public void reload() {
+        flush();
+        profiles.clear();
         Parkour.getPlugin().reloadConfig();
 
         courseData = YamlConfiguration.loadConfiguration(courseFile);
@@ -147,6 +187,14 @@ public class Configurations {
             econData = YamlConfiguration.loadConfiguration(econFile);
         }
         validateConfigProperties();
+
+        // the online players' profiles are expected to stay loaded
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            loadPlayerProfile(player);
+        }
+        CourseInfo.clearCache();
+        AutoStartManager.getInstance().loadAutoStarts();
+        ParkourModeManager.getInstance().loadEffects();
     }
 
     public FileConfiguration getCheckData() {
@@ -181,20 +229,337 @@ public class Configurations {
         return dataFolder;
     }
 
+    /**
+     * Mark courses.yml as changed, it will be saved with the next scheduled save.
+     */
     public void saveCourses() {
-        try {
-            courseData.addDefault("Courses", new ArrayList<String>());
-            courseData.options().copyDefaults(true);
-            courseData.save(courseFile);
-        } catch (IOException ex) {
-            ex.printStackTrace();
-        }
+        coursesDirty = true;
+        scheduleSave();
     }
 
+    /**
+     * Mark players.yml as changed, it will be saved with the next scheduled save.
+     */
     public void saveUsers() {
+        usersDirty = true;
+        scheduleSave();
+    }
+
+    /**
+     * Save the changed files immediately, waiting for any saves already in progress.
+     */
+    public void flush() {
+        if (saveTask != null) {
+            saveTask.cancel();
+            saveTask = null;
+        }
+
+        // an earlier snapshot must not overwrite the one about to be written
+        if (fileWriter != null) {
+            fileWriter.shutdown();
+            try {
+                fileWriter.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            fileWriter = null;
+        }
+
+        if (coursesDirty) {
+            coursesDirty = false;
+            writeAtomically(courseFile, getCoursesSnapshot());
+        }
+        for (UUID playerId : dirtyPlayers) {
+            writePlayerFile(getPlayerFile(playerId), profiles.get(playerId).saveToString());
+        }
+        dirtyPlayers.clear();
+        if (usersDirty) {
+            usersDirty = false;
+            writeAtomically(usersFile, usersData.saveToString());
+        }
+    }
+
+    /**
+     * Schedule the changed files to be saved, if a save isn't already scheduled.
+     * Once the plugin is disabled the files are saved immediately.
+     */
+    private void scheduleSave() {
+        if (saveTask != null) {
+            return;
+        }
+
+        if (!Parkour.getPlugin().isEnabled()) {
+            flush();
+            return;
+        }
+
+        long delay = Math.max(1, Parkour.getPlugin().getConfig().getLong("Other.SaveDelay"));
+        saveTask = Bukkit.getScheduler().runTaskLater(Parkour.getPlugin(), this::saveChangedFiles, delay);
+    }
+
+    /**
+     * Take a snapshot of the changed files on the main thread, and write them in the background.
+     */
+    private void saveChangedFiles() {
+        saveTask = null;
+
+        if (fileWriter == null) {
+            fileWriter = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "Parkour-FileWriter");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        if (coursesDirty) {
+            coursesDirty = false;
+            String contents = getCoursesSnapshot();
+            fileWriter.execute(() -> writeAtomically(courseFile, contents));
+        }
+        // player files are written before players.yml, which may no longer contain their imported information
+        for (UUID playerId : dirtyPlayers) {
+            File file = getPlayerFile(playerId);
+            PlayerProfile profile = profiles.get(playerId);
+            String contents = profile.saveToString();
+            unwrittenProfiles.put(playerId, profile);
+            fileWriter.execute(() -> {
+                writePlayerFile(file, contents);
+                unwrittenProfiles.remove(playerId, profile);
+            });
+        }
+        dirtyPlayers.clear();
+        if (usersDirty) {
+            usersDirty = false;
+            String contents = usersData.saveToString();
+            fileWriter.execute(() -> writeAtomically(usersFile, contents));
+        }
+
+        // players who have left no longer need their profile in memory
+        profiles.keySet().removeIf(playerId -> Bukkit.getPlayer(playerId) == null);
+    }
+
+    /**
+     * Get the player's profile, loading it from their file if it isn't already loaded.
+     * Profiles of players who aren't online are unloaded again after the next save.
+     *
+     * @param player
+     * @return player's profile
+     */
+    public PlayerProfile getPlayerProfile(OfflinePlayer player) {
+        PlayerProfile profile = profiles.get(player.getUniqueId());
+        return profile != null ? profile : loadPlayerProfile(player);
+    }
+
+    /**
+     * Get the player's profile only if it's already loaded, which is safe from any thread.
+     *
+     * @param playerId
+     * @return player's profile, or null if it isn't loaded
+     */
+    public PlayerProfile getLoadedProfile(UUID playerId) {
+        return profiles.get(playerId);
+    }
+
+    /**
+     * Load the player's profile, if it isn't already loaded.
+     * A profile still waiting to be written is reused, otherwise it's read from the player's file.
+     * If they don't have a file yet, any information they have in players.yml is moved into a new one.
+     *
+     * @param player
+     * @return player's profile
+     */
+    public PlayerProfile loadPlayerProfile(OfflinePlayer player) {
+        UUID playerId = player.getUniqueId();
+        boolean[] imported = new boolean[1];
+
+        PlayerProfile profile = profiles.computeIfAbsent(playerId, id -> {
+            PlayerProfile unwritten = unwrittenProfiles.get(id);
+            if (unwritten != null) {
+                return unwritten;
+            }
+
+            File file = getPlayerFile(id);
+            YamlConfiguration data = new YamlConfiguration();
+
+            if (file.exists()) {
+                try {
+                    data.load(file);
+                } catch (Exception ex) {
+                    Utils.log("Failed to load " + file.getName() + ": " + ex.getMessage(), 2);
+                }
+
+            } else if (player.getName() != null) {
+                imported[0] = importPlayerData(player.getName(), data);
+            }
+
+            return PlayerProfile.load(id, data);
+        });
+
+        if (imported[0]) {
+            savePlayerProfile(player);
+        }
+        return profile;
+    }
+
+    /**
+     * Mark the player's profile as changed, it will be saved with the next scheduled save.
+     *
+     * @param player
+     */
+    public void savePlayerProfile(OfflinePlayer player) {
+        if (profiles.containsKey(player.getUniqueId())) {
+            dirtyPlayers.add(player.getUniqueId());
+            scheduleSave();
+        }
+    }
+
+    /**
+     * The player's profile will be unloaded after the next save, once they have left the server.
+     *
+     * @param player
+     */
+    public void unloadPlayerProfile(OfflinePlayer player) {
+        if (profiles.containsKey(player.getUniqueId())) {
+            scheduleSave();
+        }
+    }
+
+    public boolean hasPlayerProfile(OfflinePlayer player) {
+        return profiles.containsKey(player.getUniqueId())
+                || getPlayerFile(player.getUniqueId()).exists()
+                || usersData.contains("PlayerInfo." + player.getName());
+    }
+
+    /**
+     * Delete the player's file, and anything left of them in players.yml.
+     *
+     * @param player
+     */
+    public void deletePlayerProfile(OfflinePlayer player) {
+        UUID playerId = player.getUniqueId();
+        profiles.remove(playerId);
+        unwrittenProfiles.remove(playerId);
+        dirtyPlayers.remove(playerId);
+
+        if (usersData.contains("PlayerInfo." + player.getName())) {
+            usersData.set("PlayerInfo." + player.getName(), null);
+            saveUsers();
+        }
+
+        File file = getPlayerFile(playerId);
+        // a pending write of the file must not recreate it
+        if (fileWriter != null) {
+            fileWriter.execute(file::delete);
+        } else {
+            file.delete();
+        }
+    }
+
+    /**
+     * The profiles currently in memory, for online players and recently used offline players.
+     *
+     * @return loaded profiles
+     */
+    public Collection<PlayerProfile> getLoadedProfiles() {
+        return profiles.values();
+    }
+
+    /**
+     * Move every player from players.yml into their own file.
+     * Only players known to the server can be matched to their UUID, the rest are moved when they next join.
+     */
+    public void migratePlayerData() {
+        ConfigurationSection section = usersData.getConfigurationSection("PlayerInfo");
+        if (section == null) {
+            return;
+        }
+
+        Map<String, UUID> knownPlayers = new HashMap<>();
+        for (OfflinePlayer player : Bukkit.getOfflinePlayers()) {
+            if (player.getName() != null) {
+                knownPlayers.put(player.getName(), player.getUniqueId());
+            }
+        }
+
+        int migrated = 0;
+        for (String playerName : section.getKeys(false)) {
+            UUID playerId = knownPlayers.get(playerName);
+            if (playerId == null || profiles.containsKey(playerId) || getPlayerFile(playerId).exists()) {
+                continue;
+            }
+
+            YamlConfiguration data = new YamlConfiguration();
+            importPlayerData(playerName, data);
+            writePlayerFile(getPlayerFile(playerId), data.saveToString());
+            migrated++;
+        }
+
+        if (migrated > 0) {
+            Utils.log("Moved " + migrated + " players from players.yml into " + playerDataFolder.getName() + ".");
+            flush();
+        }
+    }
+
+    /**
+     * Copy the player's information from players.yml, then remove it from players.yml.
+     *
+     * @param playerName
+     * @param data destination
+     * @return player had information to import
+     */
+    private boolean importPlayerData(String playerName, FileConfiguration data) {
+        ConfigurationSection section = usersData.getConfigurationSection("PlayerInfo." + playerName);
+        if (section == null) {
+            return false;
+        }
+
+        for (String key : section.getKeys(true)) {
+            if (!section.isConfigurationSection(key)) {
+                data.set(key, section.get(key));
+            }
+        }
+
+        usersData.set("PlayerInfo." + playerName, null);
+        usersDirty = true;
+        return true;
+    }
+
+    /**
+     * Player files are spread across folders by the start of their UUID, so no folder gets too large.
+     */
+    private File getPlayerFile(UUID playerId) {
+        String fileName = playerId.toString();
+        return new File(new File(playerDataFolder, fileName.substring(0, 2)), fileName + ".yml");
+    }
+
+    private void writePlayerFile(File file, String contents) {
+        file.getParentFile().mkdirs();
+        writeAtomically(file, contents);
+    }
+
+    private String getCoursesSnapshot() {
+        courseData.addDefault("Courses", new ArrayList<String>());
+        courseData.options().copyDefaults(true);
+        return courseData.saveToString();
+    }
+
+    /**
+     * Write to a temporary file, then replace the file with it.
+     * The file is never left partially written if the server stops mid-save.
+     */
+    private void writeAtomically(File file, String contents) {
+        Path target = file.toPath();
+        Path temp = new File(file.getParentFile(), file.getName() + ".tmp").toPath();
+
         try {
-            usersData.save(usersFile);
+            Files.write(temp, contents.getBytes(StandardCharsets.UTF_8));
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
         } catch (IOException ex) {
+            Utils.log("Failed to save " + file.getName() + ": " + ex.getMessage(), 2);
             ex.printStackTrace();
         }
     }
@@ -331,6 +696,8 @@ public class Configurations {
             stringData.addDefault("Parkour.CourseRecord", "New course record!");
             stringData.addDefault("Parkour.LeaderboardHeading", "%COURSE% : Top %AMOUNT% results");
             stringData.addDefault("Parkour.LeaderboardEntry", "%POSITION%) &b%PLAYER% &fin &3%TIME%&f, dying &7%DEATHS% &ftimes");
+            stringData.addDefault("Parkour.LeaderboardPositionHeading", "%COURSE% : Your position");
+            stringData.addDefault("Parkour.LeaderboardPosition", "You are &b#%POSITION% &fof &b%TOTAL% &fon &b%COURSE%");
             stringData.addDefault("Parkour.QuietOn", "Quiet Mode: &bON");
             stringData.addDefault("Parkour.QuietOff", "Quiet Mode: &bOFF");
             stringData.addDefault("Parkour.Challenge.Receive", "You have been challenged by &b%PLAYER% &fto course &b%COURSE%");
@@ -391,6 +758,7 @@ public class Configurations {
             stringData.addDefault("Scoreboard.BestTimeNameTitle", "Best Player:");
             stringData.addDefault("Scoreboard.MyBestTimeTitle", "My Best Time:");
             stringData.addDefault("Scoreboard.CurrentTimeTitle", "Current Time:");
+            stringData.addDefault("Scoreboard.MyPositionTitle", "My Position:");
 
             stringData.addDefault("ParkourGUI.NextPage", "&bNext page &f>");
             stringData.addDefault("ParkourGUI.PreviousPage", "< &bPrevious page");
@@ -457,7 +825,6 @@ public class Configurations {
         config.addDefault("OnJoin.TreatFirstCheckpointAsStart", false);
 
         config.addDefault("OnCourse.AdminPlaceBreakBlocks", true);
-        config.addDefault("OnCourse.AttemptLessChecks", false);
         config.addDefault("OnCourse.CheckpointMaterial", "STONE_PLATE");
         config.addDefault("OnCourse.DieInLiquid", false);
         config.addDefault("OnCourse.DieInVoid", false);
@@ -529,6 +896,7 @@ public class Configurations {
         config.addDefault("Scoreboard.Display.BestTimeEverName", true);
         config.addDefault("Scoreboard.Display.BestTimeByMe", true);
         config.addDefault("Scoreboard.Display.CurrentTime", true);
+        config.addDefault("Scoreboard.Display.MyPosition", false);
 
         config.addDefault("ParkourGUI.Enabled", false);
         config.addDefault("ParkourGUI.Rows", 2);
@@ -553,6 +921,7 @@ public class Configurations {
         config.addDefault("Other.Display.ShowMilliseconds", false);
         config.addDefault("Other.Display.PrizeCooldown", true);
         config.addDefault("Other.OnServerShutdown.BackupFiles", false);
+        config.addDefault("Other.SaveDelay", 100);
 
         config.addDefault("SQLite.PathOverride", "");
         config.addDefault("MySQL.Use", false);
@@ -562,6 +931,7 @@ public class Configurations {
         config.addDefault("MySQL.Password", "Password");
         config.addDefault("MySQL.Database", "Database");
         config.addDefault("MySQL.Table", "Table");
+        config.addDefault("MySQL.MaxPoolSize", 5);
 
         config.addDefault("Version", Double.parseDouble(Parkour.getPlugin().getDescription().getVersion()));
 
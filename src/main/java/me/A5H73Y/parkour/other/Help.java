@@ -6,6 +6,9 @@ import me.A5H73Y.parkour.Parkour;
 import me.A5H73Y.parkour.course.CourseInfo;
 import me.A5H73Y.parkour.course.CourseMethods;
 import me.A5H73Y.parkour.enums.DatabaseType;
+import me.A5H73Y.parkour.enums.FinishStage;
+import me.A5H73Y.parkour.manager.DatabaseWriteManager;
+import me.A5H73Y.parkour.manager.FinishManager;
 import me.A5H73Y.parkour.utilities.DatabaseMethods;
 import me.A5H73Y.parkour.utilities.Static;
 import me.A5H73Y.parkour.utilities.Utils;
@@ -126,8 +129,8 @@ public final class Help {
                     " Test Mode can be toggled on and off using the command, this will simulate being on a generic Parkour course. The position you start Test Mode will act as the starting point. If you specify a ParkourKit this will be simulated, otherwise the default Kit will be used.");
 
         } else if (args[1].equalsIgnoreCase("leaderboard")) {
-            displayHelpMessage(sender, "Display course leaderboards", "/pa leaderboard [[course] [amount] [scope]]", "/pa leaderboard tutorial 10 global",
-                    " A conversation will be started to display the leaderboards you want, whether it's the best global or personal times. If you do not wish to use the converation, you can provide the required arguments for instant results.");
+            displayHelpMessage(sender, "Display course leaderboards", "/pa leaderboard [[course] [amount / position] [scope]]", "/pa leaderboard tutorial 10 global",
+                    " A conversation will be started to display the leaderboards you want, whether it's the best global or personal times. If you do not wish to use the converation, you can provide the required arguments for instant results. Using 'position' instead of an amount will display your position on the course, surrounded by the players either side of you.");
 
         } else if (args[1].equalsIgnoreCase("tutorial")) {
             displayHelpMessage(sender, "Display links to tutorials", "/pa tutorial", null,
@@ -562,7 +565,23 @@ public final class Help {
     public static void displaySQL(Player player) {
         player.sendMessage(Utils.getStandardHeading("SQL Details"));
         player.sendMessage("Type: " + DatabaseMethods.type);
-        player.sendMessage("Connected: " + (Parkour.getDatabase().getConnection() != null));
+        player.sendMessage("Connected: " + (Parkour.getDatabase().getBorrowedConnections() + Parkour.getDatabase().getIdleConnections() > 0));
+        player.sendMessage("Connections: " + Parkour.getDatabase().getBorrowedConnections() + " in use, "
+                + Parkour.getDatabase().getIdleConnections() + " idle, " + Parkour.getDatabase().getMaxPoolSize() + " max");
+
+        DatabaseWriteManager writeManager = DatabaseWriteManager.getInstance();
+        player.sendMessage("Write queue: " + writeManager.getPending() + " pending, " + writeManager.getPeakPending() + " peak, "
+                + writeManager.getCapacity() + " capacity");
+        player.sendMessage("Writes: " + writeManager.getTotalWritten() + " written in " + writeManager.getTotalBatches() + " batches, "
+                + writeManager.getTotalFailed() + " failed, " + writeManager.getTotalBlocked() + " blocked, "
+                + writeManager.getTotalDropped() + " dropped");
+        player.sendMessage("Last batch: " + writeManager.getLastBatchMillis() + "ms");
+
+        FinishManager finishManager = FinishManager.getInstance();
+        for (FinishStage stage : FinishStage.values()) {
+            player.sendMessage(String.format("Finish %s: %d runs, %.2fms avg, %.2fms max", stage.name().toLowerCase(),
+                    finishManager.getCount(stage), finishManager.getAverageMillis(stage), finishManager.getMaxMillis(stage)));
+        }
         if (DatabaseMethods.type == DatabaseType.SQLite) {
             player.sendMessage("Database location: " + Parkour.getPlugin().getDataFolder() + File.separator + "sqlite-db" + File.separator + "parkour.db");
         }
@@ -581,7 +600,6 @@ public final class Help {
         sender.sendMessage("BountifulAPI: " + ChatColor.AQUA + Static.getBountifulAPI());
         sender.sendMessage("Disable Commands: " + ChatColor.AQUA + Parkour.getSettings().isDisableCommandsOnCourse());
         sender.sendMessage("Enforce world: " + ChatColor.AQUA + Parkour.getSettings().isEnforceWorld());
-        sender.sendMessage("Less checks: " + ChatColor.AQUA + Parkour.getSettings().isAttemptLessChecks());
 
         sender.sendMessage(ChatColor.GRAY + "If you want more settings displayed, please ask");
     }
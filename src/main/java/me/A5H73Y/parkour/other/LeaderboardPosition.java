@@ -0,0 +1,48 @@
+package me.A5H73Y.parkour.other;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A player's position on a course's leaderboard, based on their personal best.
+ */
+public class LeaderboardPosition {
+
+    private final int position;
+    private final int total;
+    private final int firstNeighbourPosition;
+    private final List<TimeObject> neighbours;
+
+    public LeaderboardPosition(int position, int total) {
+        this(position, total, position, new ArrayList<>());
+    }
+
+    /**
+     * @param position               player's position, starting at 1
+     * @param total                  number of players who have completed the course
+     * @param firstNeighbourPosition position of the first neighbour
+     * @param neighbours             personal bests surrounding the player's, including their own
+     */
+    public LeaderboardPosition(int position, int total, int firstNeighbourPosition, List<TimeObject> neighbours) {
+        this.position = position;
+        this.total = total;
+        this.firstNeighbourPosition = firstNeighbourPosition;
+        this.neighbours = neighbours;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getFirstNeighbourPosition() {
+        return firstNeighbourPosition;
+    }
+
+    public List<TimeObject> getNeighbours() {
+        return neighbours;
+    }
+}
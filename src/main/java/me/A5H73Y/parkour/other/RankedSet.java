@@ -0,0 +1,201 @@
+package me.A5H73Y.parkour.other;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Ordered set which can find the rank of an element, or the element at a rank, in O(log n).
+ * Implemented as a treap with each node tracking the size of its subtree.
+ * Not thread safe, access must be synchronized externally.
+ *
+ * @param <T> comparable element, elements which compare as equal are treated as duplicates
+ */
+public class RankedSet<T extends Comparable<T>> {
+
+    private Node<T> root;
+
+    public int size() {
+        return size(root);
+    }
+
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    public void clear() {
+        root = null;
+    }
+
+    /**
+     * Add the element to the set.
+     *
+     * @param value
+     * @return true if the element was added, false if already present
+     */
+    public boolean add(T value) {
+        if (contains(value)) {
+            return false;
+        }
+        root = insert(root, new Node<>(value));
+        return true;
+    }
+
+    /**
+     * Remove the element from the set.
+     *
+     * @param value
+     * @return true if the element was removed
+     */
+    public boolean remove(T value) {
+        if (!contains(value)) {
+            return false;
+        }
+        root = delete(root, value);
+        return true;
+    }
+
+    public boolean contains(T value) {
+        Node<T> node = root;
+        while (node != null) {
+            int compare = value.compareTo(node.value);
+            if (compare == 0) {
+                return true;
+            }
+            node = compare < 0 ? node.left : node.right;
+        }
+        return false;
+    }
+
+    /**
+     * Get the number of elements ordered before the value.
+     * The value does not need to be in the set.
+     *
+     * @param value
+     * @return zero-based rank
+     */
+    public int rank(T value) {
+        int rank = 0;
+        Node<T> node = root;
+
+        while (node != null) {
+            int compare = value.compareTo(node.value);
+            if (compare <= 0) {
+                node = node.left;
+            } else {
+                rank += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Get the element at the rank.
+     *
+     * @param rank zero-based rank
+     * @return element, null if out of range
+     */
+    public T get(int rank) {
+        if (rank < 0 || rank >= size()) {
+            return null;
+        }
+
+        Node<T> node = root;
+        while (node != null) {
+            int leftSize = size(node.left);
+            if (rank < leftSize) {
+                node = node.left;
+            } else if (rank == leftSize) {
+                return node.value;
+            } else {
+                rank -= leftSize + 1;
+                node = node.right;
+            }
+        }
+        return null;
+    }
+
+    private Node<T> insert(Node<T> node, Node<T> added) {
+        if (node == null) {
+            return added;
+        }
+
+        if (added.value.compareTo(node.value) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private Node<T> delete(Node<T> node, T value) {
+        int compare = value.compareTo(node.value);
+
+        if (compare < 0) {
+            node.left = delete(node.left, value);
+        } else if (compare > 0) {
+            node.right = delete(node.right, value);
+        } else {
+            if (node.left == null) {
+                return node.right;
+            } else if (node.right == null) {
+                return node.left;
+            }
+
+            if (node.left.priority > node.right.priority) {
+                node = rotateRight(node);
+                node.right = delete(node.right, value);
+            } else {
+                node = rotateLeft(node);
+                node.left = delete(node.left, value);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private Node<T> rotateRight(Node<T> node) {
+        Node<T> left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private Node<T> rotateLeft(Node<T> node) {
+        Node<T> right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    private void update(Node<T> node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    private int size(Node<T> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static class Node<T> {
+
+        private final T value;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private int size = 1;
+        private Node<T> left;
+        private Node<T> right;
+
+        private Node(T value) {
+            this.value = value;
+        }
+    }
+}
@@ -2,7 +2,8 @@ package me.A5H73Y.parkour.other;
 
 import java.io.File;
 import java.util.HashMap;
-import java.util.Map.Entry;
+import java.util.Map;
+import java.util.UUID;
 
 import com.huskehhh.mysql.Database;
 import com.huskehhh.mysql.mysql.MySQL;
@@ -12,9 +13,20 @@ import me.A5H73Y.parkour.ParkourPlaceholders;
 import me.A5H73Y.parkour.course.CourseInfo;
 import me.A5H73Y.parkour.enums.DatabaseType;
 import me.A5H73Y.parkour.kit.ParkourKit;
+import me.A5H73Y.parkour.manager.AutoStartManager;
+import me.A5H73Y.parkour.manager.DatabaseQueryManager;
+import me.A5H73Y.parkour.manager.DatabaseWriteManager;
+import me.A5H73Y.parkour.manager.LeaderboardManager;
+import me.A5H73Y.parkour.manager.ParkourModeManager;
+import me.A5H73Y.parkour.manager.SessionClockManager;
+import me.A5H73Y.parkour.manager.SessionJournalManager;
+import me.A5H73Y.parkour.manager.VoteManager;
 import me.A5H73Y.parkour.player.ParkourSession;
 import me.A5H73Y.parkour.player.PlayerMethods;
+import me.A5H73Y.parkour.player.SessionSnapshot;
+import me.A5H73Y.parkour.player.SessionState;
 import me.A5H73Y.parkour.utilities.DatabaseMethods;
+import me.A5H73Y.parkour.utilities.DatabaseMigrations;
 import me.A5H73Y.parkour.utilities.Static;
 import me.A5H73Y.parkour.utilities.Utils;
 import net.milkbowl.vault.economy.Economy;
@@ -30,10 +42,15 @@ public class StartPlugin {
     public static void run() {
         checkConvertToLatest();
         Parkour.getParkourConfig().setupConfig();
+        Parkour.getParkourConfig().migratePlayerData();
+        AutoStartManager.getInstance().loadAutoStarts();
         Static.initiate();
         initiateSQL();
         setupExternalPlugins();
         populatePlayers();
+        SessionJournalManager.getInstance().start();
+        ParkourModeManager.getInstance().start();
+        SessionClockManager.getInstance().start();
         Utils.log("Enabled Parkour v" + Static.getVersion());
     }
 
@@ -78,6 +95,7 @@ public class StartPlugin {
         // forcing SQLite (MySQL failed)
         if (!forceSQLite && config.getBoolean("MySQL.Use") && !config.getString("MySQL.Host").equals("Host")) {
             database = new MySQL(config.getString("MySQL.Host"), config.getString("MySQL.Port"), config.getString("MySQL.Database"), config.getString("MySQL.User"), config.getString("MySQL.Password"));
+            database.setMaxPoolSize(config.getInt("MySQL.MaxPoolSize"));
             DatabaseMethods.type = DatabaseType.MySQL;
         } else {
             database = new SQLite("parkour.db");
@@ -85,17 +103,32 @@ public class StartPlugin {
         }
 
         try {
-            database.openConnection();
+            database.returnConnection(database.borrowConnection());
             Parkour.setDatabase(database);
+            DatabaseWriteManager.getInstance().start();
+            // the writer holds one of the pooled connections, with SQLite the queries share its only connection
+            DatabaseQueryManager.getInstance().start(database.getMaxPoolSize() - 1);
             DatabaseMethods.setupTables();
+            DatabaseMigrations.migrate();
+            DatabaseMethods.loadCourseIds();
+            LeaderboardManager.getInstance().loadLeaderboardsAsync();
+            VoteManager.getInstance().loadVotes();
+            for (Player player : Bukkit.getOnlinePlayers()) {
+                VoteManager.getInstance().loadPlayerVotes(player.getName());
+            }
         } catch (Exception ex) {
-            failedSQL(ex);
+            failedSQL(ex, database);
         }
     }
 
-    private static void failedSQL(Exception ex) {
+    private static void failedSQL(Exception ex, Database database) {
         Utils.log("[SQL] Connection problem: " + ex.getMessage(), 2);
         Utils.log("[SQL] Defaulting to SQLite...", 1);
+        // stop using the failed database, so they start again with SQLite
+        DatabaseQueryManager.getInstance().shutdown();
+        DatabaseWriteManager.getInstance().shutdown();
+        database.closeConnection();
+        database.closePool();
         Parkour.getPlugin().getConfig().set("MySQL.Use", false);
         Parkour.getPlugin().saveConfig();
         initiateSQL(true);
@@ -147,29 +180,69 @@ public class StartPlugin {
     }
 
     private static void populatePlayers() {
-        if (!new File(Static.PLAYING_BIN_PATH).exists()) {
+        File sessionsFile = new File(Static.SESSIONS_PATH);
+        File journalFile = new File(Static.SESSIONS_JOURNAL_PATH);
+        File legacyFile = new File(Static.PLAYING_BIN_PATH);
+
+        if (sessionsFile.exists() || journalFile.exists()) {
+            Map<UUID, SessionState> states = SessionJournalManager.getInstance().recoverSessions();
+            SessionSnapshot.restore(states.values(), PlayerMethods.getPlaying());
+
+        } else if (legacyFile.exists()) {
+            if (!populateLegacyPlayers()) {
+                // keep the sessions which couldn't be loaded, rather than losing them
+                File backupFile = new File(Static.PLAYING_BIN_PATH + ".bak");
+                if (!legacyFile.renameTo(backupFile)) {
+                    Utils.log("Failed to rename " + legacyFile.getName() + " to " + backupFile.getName(), 1);
+                }
+                return;
+            }
+
+        } else {
             return;
         }
 
+        // the sessions will be saved in the new format from now on
+        if (legacyFile.exists() && !legacyFile.delete()) {
+            Utils.log("Failed to delete " + legacyFile.getName(), 1);
+        }
+
+        for (UUID playerId : PlayerMethods.getPlaying().getPlayerIds()) {
+            Player playingp = Bukkit.getPlayer(playerId);
+            if (playingp == null) {
+                continue;
+            }
+
+            ParkourSession session = PlayerMethods.getParkourSession(playingp);
+            playingp.sendMessage(Utils.getTranslation("Parkour.Continue")
+                    .replace("%COURSE%", session.getCourse().getName()));
+            ParkourModeManager.getInstance().applyEffects(playingp, session.getMode());
+            SessionClockManager.getInstance().addSession(playingp, session);
+        }
+    }
+
+    /**
+     * Load the sessions saved by an older version, which serialized the whole session.
+     *
+     * @return whether the sessions were loaded
+     */
+    private static boolean populateLegacyPlayers() {
         try {
             @SuppressWarnings("unchecked")
             HashMap<String, ParkourSession> players = (HashMap<String, ParkourSession>) Utils.loadAllPlaying(Static.PLAYING_BIN_PATH);
+            if (players == null) {
+                Utils.log("Failed to load players from " + Static.PLAYING_BIN_PATH, 2);
+                PlayerMethods.setPlaying(new HashMap<>());
+                return false;
+            }
             fixParkourBlocks(players);
 
             PlayerMethods.setPlaying(players);
-
-            for (Entry<String, ParkourSession> entry : players.entrySet()) {
-                Player playingp = Parkour.getPlugin().getServer().getPlayer(entry.getKey());
-                if (playingp == null) {
-                    continue;
-                }
-
-                playingp.sendMessage(Utils.getTranslation("Parkour.Continue")
-                        .replace("%COURSE%", entry.getValue().getCourse().getName()));
-            }
+            return true;
         } catch (Exception e) {
             Utils.log("Failed to load players: " + e.getMessage(), 2);
             PlayerMethods.setPlaying(new HashMap<>());
+            return false;
         }
     }
 
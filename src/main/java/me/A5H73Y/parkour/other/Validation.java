@@ -120,7 +120,7 @@ public class Validation {
 
         /* Player in wrong world */
         if (Parkour.getSettings().isEnforceWorld()) {
-            if (!player.getLocation().getWorld().getName().equals(course.getCurrentCheckpoint().getWorld())) {
+            if (!player.getLocation().getWorld().getName().equals(course.getCheckpoint(0).getWorld())) {
                 player.sendMessage(Utils.getTranslation("Error.WrongWorld"));
                 return false;
             }
@@ -176,7 +176,7 @@ public class Validation {
 
         /* Check if the player is allowed to leave the course for another */
         if (Parkour.getPlugin().getConfig().getBoolean("OnCourse.PreventJoiningDifferentCourse")) {
-            if (PlayerMethods.isPlaying(player.getName())) {
+            if (PlayerMethods.isPlaying(player)) {
                 player.sendMessage(Utils.getTranslation("Error.JoiningAnotherCourse"));
                 return false;
             }
@@ -252,7 +252,7 @@ public class Validation {
             player.sendMessage(Static.getParkourString() + "This player is not online!");
             return false;
         }
-        if (PlayerMethods.isPlaying(player.getName())) {
+        if (PlayerMethods.isPlaying(player)) {
             player.sendMessage(Static.getParkourString() + "You are already on a course!");
             return false;
         }
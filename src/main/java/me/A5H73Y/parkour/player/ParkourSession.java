@@ -2,21 +2,12 @@ package me.A5H73Y.parkour.player;
 
 import java.io.Serializable;
 
-import me.A5H73Y.parkour.Parkour;
-import me.A5H73Y.parkour.course.CheckpointMethods;
+import me.A5H73Y.parkour.course.Checkpoint;
 import me.A5H73Y.parkour.course.Course;
 import me.A5H73Y.parkour.course.CourseMethods;
 import me.A5H73Y.parkour.enums.ParkourMode;
-import me.A5H73Y.parkour.manager.QuietModeManager;
-import me.A5H73Y.parkour.utilities.Static;
 import me.A5H73Y.parkour.utilities.Utils;
-
-import org.bukkit.Bukkit;
-import org.bukkit.ChatColor;
-import org.bukkit.Sound;
-import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitRunnable;
-import org.bukkit.scheduler.BukkitTask;
+import org.bukkit.Material;
 
 public class ParkourSession implements Serializable {
 
@@ -30,8 +21,9 @@ public class ParkourSession implements Serializable {
     private int seconds;
 
     private String liveTime;
-
-    private int taskId = 0;
+    private transient boolean onGround;
+    private transient long currentBlock = Long.MIN_VALUE;
+    private transient Material[] sideMaterials;
 
     /**
      * This is the ParkourSession object.
@@ -50,63 +42,38 @@ public class ParkourSession implements Serializable {
         this.timestarted = System.currentTimeMillis();
         this.course = course;
         this.mode = CourseMethods.getCourseMode(course.getName());
+        if (course.hasMaxTime()) {
+            this.seconds = course.getMaxTime();
+        }
     }
 
-    public void startVisualTimer(final Player player) {
-        if (!Parkour.getPlugin().getConfig().getBoolean("OnCourse.DisplayLiveTime")
-                || QuietModeManager.getInstance().isInQuietMode(player.getName())) {
-            return;
-        }
+    /**
+     * Restore a session from its saved state.
+     *
+     * @param course
+     * @param mode
+     * @param checkpoint
+     * @param deaths
+     * @param time milliseconds since the session started
+     * @param seconds seconds on the timer
+     */
+    ParkourSession(Course course, ParkourMode mode, int checkpoint, int deaths, long time, int seconds) {
+        this.course = course;
+        this.mode = mode;
+        this.checkpoint = checkpoint;
+        this.deaths = deaths;
+        this.timestarted = System.currentTimeMillis() - time;
+        this.seconds = seconds;
+    }
 
-        if (course.hasMaxTime()) {
-            seconds = course.getMaxTime();
-        }
-        final String soundName = Utils.getTimerSound();
-        BukkitTask task = new BukkitRunnable() {
-            @Override
-            public void run() {
-                if (course.hasMaxTime()) {
-                    liveTime = Utils.convertSecondsToTime(--seconds);
-                } else {
-                    liveTime = Utils.convertSecondsToTime(++seconds);
-                }
-
-                if (!player.isOnline()) {
-                    cancelVisualTimer();
-                    return;
-                }
-                if (course.hasMaxTime() && (seconds <= 5 || seconds == 10)) {
-                    liveTime = ChatColor.RED + liveTime;
-                    player.playSound(player.getLocation(), Sound.valueOf(soundName), 2.0f, 1.75f);
-                }
-
-                boolean useScoreboard = Parkour.getPlugin().getConfig().getBoolean("Scoreboard.Display.CurrentTime");
-
-                if (Parkour.getScoreboardManager().isEnabled() && useScoreboard) {
-                    Parkour.getScoreboardManager().updateScoreboardTimer(player, liveTime);
-
-                } else if (Static.getBountifulAPI()) {
-                    Utils.sendActionBar(player, liveTime, true);
-                }
-
-                if (course.hasMaxTime()) {
-                    if (seconds == 0) {
-                        player.sendMessage(Utils.getTranslation("Parkour.MaxTime")
-                                .replace("%TIME%", Utils.convertSecondsToTime(course.getMaxTime())));
-                        PlayerMethods.playerLeave(player);
-                    }
-                }
-            }
-        }.runTaskTimer(Parkour.getPlugin(), 20, 20);
-
-        taskId = task.getTaskId();
-    }
-
-    public void cancelVisualTimer() {
-        if (taskId > 0) {
-            Bukkit.getScheduler().cancelTask(taskId);
-            taskId = 0;
-        }
+    /**
+     * Advance the timer of the session by a second.
+     * The timer counts down if the course has a maximum time, otherwise it counts up.
+     *
+     * @return seconds on the timer
+     */
+    public int tickTimer() {
+        return course.hasMaxTime() ? --seconds : ++seconds;
     }
 
     /**
@@ -118,6 +85,14 @@ public class ParkourSession implements Serializable {
         return liveTime;
     }
 
+    int getSeconds() {
+        return seconds;
+    }
+
+    public void setLiveTime(String liveTime) {
+        this.liveTime = liveTime;
+    }
+
     public int getDeaths() {
         return deaths;
     }
@@ -142,9 +117,18 @@ public class ParkourSession implements Serializable {
         }
     }
 
+    /**
+     * Get the checkpoint the player has achieved.
+     *
+     * @return Checkpoint
+     */
+    public Checkpoint getCurrentCheckpoint() {
+        return course.getCheckpoint(checkpoint);
+    }
+
     public void increaseCheckpoint() {
         checkpoint++;
-        course.setCheckpoint(CheckpointMethods.getNextCheckpoint(course.getName(), checkpoint));
+        course.setCustomCheckpoint(null);
     }
 
     public void increaseDeath() {
@@ -167,10 +151,47 @@ public class ParkourSession implements Serializable {
         this.mode = mode;
     }
 
+    /**
+     * Remember whether the player is on the ground.
+     *
+     * @param onGround
+     * @return whether it has changed since the player last moved
+     */
+    public boolean updateOnGround(boolean onGround) {
+        boolean changed = this.onGround != onGround;
+        this.onGround = onGround;
+        return changed;
+    }
+
+    /**
+     * Remember the block the player is in.
+     *
+     * @param packedBlock packed coordinates of the block
+     * @return whether it has changed since the player last moved
+     */
+    public boolean updateBlock(long packedBlock) {
+        boolean changed = currentBlock != packedBlock;
+        currentBlock = packedBlock;
+        return changed;
+    }
+
+    /**
+     * The materials of the blocks beside the block the player is in.
+     *
+     * @return side materials, or null if they haven't been looked up
+     */
+    public Material[] getSideMaterials() {
+        return sideMaterials;
+    }
+
+    public void setSideMaterials(Material[] sideMaterials) {
+        this.sideMaterials = sideMaterials;
+    }
+
     public void restartSession() {
         checkpoint = 0;
         deaths = 0;
-        course.setCheckpoint(CheckpointMethods.getNextCheckpoint(course.getName(), checkpoint));
+        course.setCustomCheckpoint(null);
         resetTimeStarted();
     }
 }
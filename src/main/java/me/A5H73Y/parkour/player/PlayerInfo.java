@@ -1,7 +1,5 @@
 package me.A5H73Y.parkour.player;
 
-import java.util.List;
-
 import me.A5H73Y.parkour.Parkour;
 import me.A5H73Y.parkour.event.PlayerParkourLevelEvent;
 import me.A5H73Y.parkour.other.Validation;
@@ -25,7 +23,7 @@ public class PlayerInfo {
      * @return selected course
      */
     public static String getSelected(OfflinePlayer player) {
-        return Parkour.getParkourConfig().getUsersData().getString("PlayerInfo." + player.getName() + ".Selected");
+        return getProfile(player).getSelected();
     }
 
     /**
@@ -35,8 +33,8 @@ public class PlayerInfo {
      * @param courseName
      */
     public static void setSelected(OfflinePlayer player, String courseName) {
-        Parkour.getParkourConfig().getUsersData().set("PlayerInfo." + player.getName() + ".Selected", courseName.toLowerCase());
-        Parkour.getParkourConfig().saveUsers();
+        getProfile(player).setSelected(courseName.toLowerCase());
+        save(player);
     }
 
     /**
@@ -45,8 +43,8 @@ public class PlayerInfo {
      * @param player
      */
     public static void setDelected(OfflinePlayer player) {
-        Parkour.getParkourConfig().getUsersData().set("PlayerInfo." + player.getName() + ".Selected", null);
-        Parkour.getParkourConfig().saveUsers();
+        getProfile(player).setSelected(null);
+        save(player);
     }
 
     /**
@@ -74,7 +72,7 @@ public class PlayerInfo {
      * @return int
      */
     public static int getParkoins(OfflinePlayer player) {
-        return Parkour.getParkourConfig().getUsersData().getInt("PlayerInfo." + player.getName() + ".Parkoins");
+        return getProfile(player).getParkoins();
     }
 
     /**
@@ -84,8 +82,8 @@ public class PlayerInfo {
      * @param amount
      */
     public static void setParkoins(OfflinePlayer player, int amount) {
-        Parkour.getParkourConfig().getUsersData().set("PlayerInfo." + player.getName() + ".Parkoins", amount);
-        Parkour.getParkourConfig().saveUsers();
+        getProfile(player).setParkoins(amount);
+        save(player);
     }
 
     /**
@@ -95,7 +93,7 @@ public class PlayerInfo {
      * @return courseName
      */
     public static String getLastCompletedCourse(OfflinePlayer player) {
-        return Parkour.getParkourConfig().getUsersData().getString("PlayerInfo." + player.getName() + ".LastCompleted");
+        return getProfile(player).getLastCompleted();
     }
 
     /**
@@ -105,7 +103,7 @@ public class PlayerInfo {
      * @return courseName
      */
     public static String getLastPlayedCourse(OfflinePlayer player) {
-        return Parkour.getParkourConfig().getUsersData().getString("PlayerInfo." + player.getName() + ".LastPlayed");
+        return getProfile(player).getLastPlayed();
     }
 
     /**
@@ -115,7 +113,7 @@ public class PlayerInfo {
      * @return parkourLevel
      */
     public static int getParkourLevel(OfflinePlayer player) {
-        return Parkour.getParkourConfig().getUsersData().getInt("PlayerInfo." + player.getName() + ".Level");
+        return getProfile(player).getLevel();
     }
 
     /**
@@ -125,8 +123,8 @@ public class PlayerInfo {
      * @param level
      */
     public static void setParkourLevel(OfflinePlayer player, int level) {
-        Parkour.getParkourConfig().getUsersData().set("PlayerInfo." + player.getName() + ".Level", level);
-        Parkour.getParkourConfig().saveUsers();
+        getProfile(player).setLevel(level);
+        save(player);
 
         Bukkit.getServer().getPluginManager().callEvent(new PlayerParkourLevelEvent((Player) player, null, level));
     }
@@ -139,21 +137,13 @@ public class PlayerInfo {
      * @param courseName
      */
     public static void setCompletedCourseInfo(OfflinePlayer player, String courseName) {
-        Parkour.getParkourConfig().getUsersData()
-                .set("PlayerInfo." + player.getName() + ".LastCompleted", courseName.toLowerCase());
+        getProfile(player).setLastCompleted(courseName.toLowerCase());
 
         if (Parkour.getPlugin().getConfig().getBoolean("OnFinish.SaveUserCompletedCourses")) {
-            List<String> completedCourses = Parkour.getParkourConfig().getUsersData()
-                    .getStringList("PlayerInfo." + player.getName() + ".Completed");
-
-            if (!completedCourses.contains(courseName)) {
-                completedCourses.add(courseName);
-                Parkour.getParkourConfig().getUsersData()
-                        .set("PlayerInfo." + player.getName() + ".Completed", completedCourses);
-            }
+            getProfile(player).addCompletedCourse(courseName);
         }
 
-        Parkour.getParkourConfig().saveUsers();
+        save(player);
     }
 
     /**
@@ -163,8 +153,8 @@ public class PlayerInfo {
      * @param courseName
      */
     public static void setLastPlayedCourse(OfflinePlayer player, String courseName) {
-        Parkour.getParkourConfig().getUsersData().set("PlayerInfo." + player.getName() + ".LastPlayed", courseName.toLowerCase());
-        Parkour.getParkourConfig().saveUsers();
+        getProfile(player).setLastPlayed(courseName.toLowerCase());
+        save(player);
     }
 
     /**
@@ -176,7 +166,7 @@ public class PlayerInfo {
      * @return
      */
     public static String getRank(OfflinePlayer player) {
-        String rank = Parkour.getParkourConfig().getUsersData().getString("PlayerInfo." + player.getName() + ".Rank");
+        String rank = getProfile(player).getRank();
         return rank == null ? Utils.getTranslation("Event.DefaultRank", false) : rank;
     }
 
@@ -187,8 +177,8 @@ public class PlayerInfo {
      * @param rank
      */
     public static void setRank(OfflinePlayer player, String rank) {
-        Parkour.getParkourConfig().getUsersData().set("PlayerInfo." + player.getName() + ".Rank", rank);
-        Parkour.getParkourConfig().saveUsers();
+        getProfile(player).setRank(rank);
+        save(player);
     }
 
     /**
@@ -199,8 +189,7 @@ public class PlayerInfo {
      * @return
      */
     public static long getLastRewardedTime(OfflinePlayer player, String courseName) {
-        return Parkour.getParkourConfig().getUsersData()
-                .getLong("PlayerInfo." + player.getName() + ".LastRewarded." + courseName.toLowerCase(), 0);
+        return getProfile(player).getLastRewarded(courseName.toLowerCase());
     }
 
     /**
@@ -211,9 +200,8 @@ public class PlayerInfo {
      * @param rewardTime
      */
     public static void setLastRewardedTime(OfflinePlayer player, String courseName, long rewardTime) {
-        Parkour.getParkourConfig().getUsersData()
-                .set("PlayerInfo." + player.getName() + ".LastRewarded." + courseName.toLowerCase(), rewardTime);
-        Parkour.getParkourConfig().saveUsers();
+        getProfile(player).setLastRewarded(courseName.toLowerCase(), rewardTime);
+        save(player);
     }
 
     /**
@@ -223,19 +211,18 @@ public class PlayerInfo {
      * @return
      */
     public static boolean hasPlayerInfo(OfflinePlayer player) {
-        return Parkour.getParkourConfig().getUsersData().contains("PlayerInfo." + player.getName());
+        return Parkour.getParkourConfig().hasPlayerProfile(player);
     }
 
     /**
      * Reset player's Parkour information.
      * This will remove all trace of the player from the plugin.
-     * All SQL time entries from the player will be removed, and their parkour stats will be deleted from the config.
+     * All SQL time entries from the player will be removed, and their parkour stats file will be deleted.
      *
      * @param player
      */
     public static void resetPlayer(OfflinePlayer player) {
-        Parkour.getParkourConfig().getUsersData().set("PlayerInfo." + player.getName(), null);
-        Parkour.getParkourConfig().saveUsers();
+        Parkour.getParkourConfig().deletePlayerProfile(player);
         DatabaseMethods.deleteAllTimesForPlayer(player.getName());
     }
 
@@ -246,9 +233,14 @@ public class PlayerInfo {
      * @return results
      */
     public static String getNumberOfCoursesCompleted(Player player) {
-        List<String> completedCourse = Parkour.getParkourConfig().getUsersData()
-                .getStringList("PlayerInfo." + player.getName() + ".Completed");
+        return String.valueOf(getProfile(player).getCompletedCourses().size());
+    }
+
+    private static PlayerProfile getProfile(OfflinePlayer player) {
+        return Parkour.getParkourConfig().getPlayerProfile(player);
+    }
 
-        return String.valueOf(completedCourse.size());
+    private static void save(OfflinePlayer player) {
+        Parkour.getParkourConfig().savePlayerProfile(player);
     }
 }
@@ -1,7 +1,11 @@
 package me.A5H73Y.parkour.player;
 
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import me.A5H73Y.parkour.Parkour;
 import me.A5H73Y.parkour.course.Checkpoint;
@@ -9,6 +13,8 @@ import me.A5H73Y.parkour.course.Course;
 import me.A5H73Y.parkour.course.CourseInfo;
 import me.A5H73Y.parkour.course.CourseMethods;
 import me.A5H73Y.parkour.course.LobbyMethods;
+import me.A5H73Y.parkour.enums.FinishStage;
+import me.A5H73Y.parkour.enums.ParkourKitAction;
 import me.A5H73Y.parkour.enums.ParkourMode;
 import me.A5H73Y.parkour.event.PlayerAchieveCheckpointEvent;
 import me.A5H73Y.parkour.event.PlayerDeathEvent;
@@ -17,9 +23,13 @@ import me.A5H73Y.parkour.event.PlayerJoinCourseEvent;
 import me.A5H73Y.parkour.event.PlayerLeaveCourseEvent;
 import me.A5H73Y.parkour.kit.ParkourKit;
 import me.A5H73Y.parkour.manager.ChallengeManager;
+import me.A5H73Y.parkour.manager.DatabaseQueryManager;
+import me.A5H73Y.parkour.manager.FinishManager;
+import me.A5H73Y.parkour.manager.ParkourModeManager;
 import me.A5H73Y.parkour.manager.QuietModeManager;
+import me.A5H73Y.parkour.manager.SessionClockManager;
+import me.A5H73Y.parkour.manager.SessionJournalManager;
 import me.A5H73Y.parkour.other.Constants;
-import me.A5H73Y.parkour.other.TimeObject;
 import me.A5H73Y.parkour.other.Validation;
 import me.A5H73Y.parkour.utilities.DatabaseMethods;
 import me.A5H73Y.parkour.utilities.Static;
@@ -43,9 +53,9 @@ import org.bukkit.util.Vector;
 public class PlayerMethods {
 
     /**
-     * Map a player username to their ParkourSession
+     * The ParkourSession of each player on a course
      */
-    private static HashMap<String, ParkourSession> parkourPlayers = new HashMap<>();
+    private static final SessionRegistry parkourPlayers = new SessionRegistry();
 
     /**
      * This method is only called from the CourseMethods after course
@@ -56,11 +66,11 @@ public class PlayerMethods {
      * @param course
      */
     public static void playerJoin(Player player, Course course) {
-        player.teleport(course.getCurrentCheckpoint().getLocation());
+        player.teleport(course.getCheckpoint(0).getLocation());
         prepareJoinPlayer(player, course.getName());
         CourseInfo.increaseView(course.getName());
 
-        if (getParkourSession(player.getName()) == null) {
+        if (getParkourSession(player) == null) {
             boolean displayTitle = Parkour.getPlugin().getConfig().getBoolean("DisplayTitle.JoinCourse");
 
             if (course.getMaxDeaths() == null) {
@@ -75,17 +85,18 @@ public class PlayerMethods {
                         displayTitle);
             }
         } else {
-            removePlayer(player.getName());
+            teardownPlayerMode(player);
+            removePlayer(player);
             if (!QuietModeManager.getInstance().isInQuietMode(player.getName())) {
                 player.sendMessage(Utils.getTranslation("Parkour.TimeReset"));
             }
         }
 
-        ParkourSession session = addPlayer(player.getName(), new ParkourSession(course));
+        ParkourSession session = addPlayer(player, new ParkourSession(course));
         PlayerInfo.setLastPlayedCourse(player, course.getName());
         setupPlayerMode(player);
         Parkour.getScoreboardManager().addScoreboard(player);
-        session.startVisualTimer(player);
+        SessionClockManager.getInstance().addSession(player, session);
         Bukkit.getServer().getPluginManager().callEvent(new PlayerJoinCourseEvent(player, course.getName()));
     }
 
@@ -96,18 +107,19 @@ public class PlayerMethods {
      * @param player
      */
     public static void playerLeave(Player player) {
-        if (!isPlaying(player.getName())) {
+        ParkourSession session = getParkourSession(player);
+
+        if (session == null) {
             player.sendMessage(Utils.getTranslation("Error.NotOnAnyCourse"));
             return;
         }
 
-        ParkourSession session = getParkourSession(player.getName());
         Utils.sendSubTitle(player, Utils.getTranslation("Parkour.Leave", false)
                         .replace("%COURSE%", session.getCourse().getName()),
                 Parkour.getPlugin().getConfig().getBoolean("DisplayTitle.Leave"));
 
         teardownPlayerMode(player);
-        removePlayer(player.getName());
+        removePlayer(player);
         preparePlayer(player, Parkour.getPlugin().getConfig().getInt("OnFinish.SetGamemode"));
         restoreHealth(player);
         loadInventory(player);
@@ -139,11 +151,12 @@ public class PlayerMethods {
      * @param player
      */
     public static void playerDie(Player player) {
-        if (!isPlaying(player.getName())) {
+        ParkourSession session = getParkourSession(player);
+
+        if (session == null) {
             return;
         }
 
-        ParkourSession session = getParkourSession(player.getName());
         session.increaseDeath();
 
         if (session.getCourse().hasMaxDeaths()) {
@@ -161,7 +174,7 @@ public class PlayerMethods {
             }
         }
 
-        player.teleport(session.getCourse().getCurrentCheckpoint().getLocation());
+        player.teleport(session.getCurrentCheckpoint().getLocation());
 
         // if it's the first checkpoint
         if (session.getCheckpoint() == 0) {
@@ -181,6 +194,7 @@ public class PlayerMethods {
                         .replace("%POINT%", String.valueOf(session.getCheckpoint())));
             }
         }
+        SessionJournalManager.getInstance().sessionUpdated(player, session);
 
         if (Parkour.getPlugin().getConfig().getBoolean("OnDie.SetXPBarToDeathCount")) {
             player.setLevel(session.getDeaths());
@@ -198,11 +212,15 @@ public class PlayerMethods {
      * Their reward will be given here, as well as a time entry to the database.
      * Inventory is restored before the player is teleported. If the teleport is delayed,
      * restore the inventory after the delay.
+     * Everything the player sees is done immediately, the rest is processed by the FinishManager.
      *
      * @param player
      */
     public static void playerFinish(final Player player) {
-        if (!isPlaying(player.getName())) {
+        final long started = System.nanoTime();
+        ParkourSession session = getParkourSession(player);
+
+        if (session == null) {
             return;
         }
 
@@ -210,7 +228,6 @@ public class PlayerMethods {
             return;
         }
 
-        ParkourSession session = getParkourSession(player.getName());
         final String courseName = session.getCourse().getName();
         final long timeTaken = session.getTime();
 
@@ -231,9 +248,8 @@ public class PlayerMethods {
         }
 
         displayFinishMessage(player, session);
-        CourseInfo.increaseComplete(courseName);
         teardownPlayerMode(player);
-        removePlayer(player.getName());
+        removePlayer(player);
 
         if (ChallengeManager.getInstance().isPlayerInChallenge(player.getName())) {
             ChallengeManager.getInstance().completeChallenge(player);
@@ -243,13 +259,15 @@ public class PlayerMethods {
             player.setLevel(0);
         }
 
+        // whether the player had already completed the course must be known before this time is persisted
+        final CompletableFuture<Boolean> completedBefore = hasCompletedBefore(player, courseName);
         final long delay = Parkour.getPlugin().getConfig().getLong("OnFinish.TeleportDelay");
         final boolean teleportAway = Parkour.getPlugin().getConfig().getBoolean("OnFinish.TeleportAway");
 
         if (delay <= 0) {
             restoreHealth(player);
             loadInventory(player);
-            givePrize(player, courseName);
+            givePrize(player, courseName, completedBefore);
             if (teleportAway) {
                 courseCompleteLocation(player, courseName);
             }
@@ -257,52 +275,19 @@ public class PlayerMethods {
             Bukkit.getScheduler().scheduleSyncDelayedTask(Parkour.getPlugin(), () -> {
                 restoreHealth(player);
                 loadInventory(player);
-                givePrize(player, courseName);
+                givePrize(player, courseName, completedBefore);
                 if (teleportAway) {
                     courseCompleteLocation(player, courseName);
                 }
             }, delay);
         }
 
-        DatabaseMethods.insertOrUpdateTime(courseName, player, timeTaken, session.getDeaths());
-
-        PlayerInfo.setCompletedCourseInfo(player, courseName);
-
         Utils.forceVisible(player);
         Parkour.getScoreboardManager().removeScoreboard(player);
-        Bukkit.getServer().getPluginManager().callEvent(new PlayerFinishCourseEvent(player, courseName));
-    }
+        FinishManager.getInstance().timeStage(FinishStage.PLAYER, started);
 
-    /**
-     * Check if the player's time is a new course or personal record.
-     *
-     * @param player
-     * @param courseName
-     * @param timeTaken
-     */
-    public static boolean isNewRecord(Player player, String courseName, long timeTaken) {
-        List<TimeObject> courseRecord = DatabaseMethods.getTopCourseResults(courseName, 1);
-        TimeObject record = null;
-
-        if (courseRecord != null && !courseRecord.isEmpty()) {
-            record = courseRecord.get(0);
-        }
-        if (record == null || record.getTime() > timeTaken) {
-            Utils.sendFullTitle(player, Utils.getTranslation("Parkour.CourseRecord", false), Utils.displayCurrentTime(timeTaken), true);
-            return true;
-        }
-
-        List<TimeObject> playerRecord = DatabaseMethods.getTopPlayerCourseResults(player.getName(), courseName, 1);
-        TimeObject result = null;
-
-        if (playerRecord != null && !playerRecord.isEmpty()) {
-            result = playerRecord.get(0);
-        }
-        if (result == null || result.getTime() > timeTaken) {
-            Utils.sendFullTitle(player, Utils.getTranslation("Parkour.BestTime", false), Utils.displayCurrentTime(timeTaken), true);
-            return true;
-        }
-        return false;
+        FinishManager.getInstance().processFinish(player, courseName, timeTaken, session.getDeaths(), completedBefore);
+        Bukkit.getServer().getPluginManager().callEvent(new PlayerFinishCourseEvent(player, courseName));
     }
 
     /**
@@ -313,19 +298,21 @@ public class PlayerMethods {
      * @param player
      */
     public static void restartCourse(Player player) {
-        if (!isPlaying(player.getName())) {
+        ParkourSession session = getParkourSession(player);
+
+        if (session == null) {
             return;
         }
 
-        ParkourSession session = getParkourSession(player.getName());
         session.restartSession();
 
         if (Parkour.getSettings().isFirstCheckAsStart()) {
             session.increaseCheckpoint();
         }
+        SessionJournalManager.getInstance().sessionUpdated(player, session);
 
         player.sendMessage(Utils.getTranslation("Parkour.Restarting"));
-        player.teleport(session.getCourse().getCurrentCheckpoint().getLocation());
+        player.teleport(session.getCurrentCheckpoint().getLocation());
     }
 
     /**
@@ -405,22 +392,56 @@ public class PlayerMethods {
 
     }
 
+    /**
+     * Check whether the player had completed the course before, if the course only rewards once.
+     * This must be checked before the new time is persisted, otherwise the new time would be found.
+     * If the check fails, the player is treated as having completed the course.
+     *
+     * @param player
+     * @param courseName
+     * @return future completed with whether the player had already completed the course
+     */
+    private static CompletableFuture<Boolean> hasCompletedBefore(Player player, String courseName) {
+        if (!Parkour.getPlugin().getConfig().getBoolean("OnFinish.EnablePrizes")
+                || !CourseInfo.getRewardOnce(courseName)) {
+            return CompletableFuture.completedFuture(false);
+        }
+
+        return DatabaseMethods.hasPlayerCompletedAsync(player.getName(), courseName).exceptionally(error -> true);
+    }
+
     /**
      * Reward a player with several forms of prize after course completion.
      *
      * @param player
      * @param courseName
+     * @param completedBefore whether the player had already completed the course
      */
-    private static void givePrize(Player player, String courseName) {
+    private static void givePrize(Player player, String courseName, CompletableFuture<Boolean> completedBefore) {
         if (!Parkour.getPlugin().getConfig().getBoolean("OnFinish.EnablePrizes")) {
             return;
         }
 
-        if (CourseInfo.getRewardOnce(courseName) &&
-                DatabaseMethods.hasPlayerCompleted(player.getName(), courseName)) {
+        if (CourseInfo.getRewardOnce(courseName)) {
+            DatabaseQueryManager.getInstance().thenSync(completedBefore,
+                    completed -> {
+                        if (!completed && player.isOnline()) {
+                            rewardPrize(player, courseName);
+                        }
+                    });
             return;
         }
 
+        rewardPrize(player, courseName);
+    }
+
+    /**
+     * Give the player the course's prizes, if the reward cooldown allows it.
+     *
+     * @param player
+     * @param courseName
+     */
+    private static void rewardPrize(Player player, String courseName) {
         // Check how often prize can be rewarded
         if (CourseInfo.hasRewardDelay(courseName)) {
             // if we still have to wait, return out of this function
@@ -511,7 +532,7 @@ public class PlayerMethods {
         giveEconomyPrize(player, courseName);
 
         player.updateInventory();
-        Parkour.getParkourConfig().saveUsers();
+        Parkour.getParkourConfig().savePlayerProfile(player);
     }
 
     /**
@@ -574,6 +595,17 @@ public class PlayerMethods {
         }
     }
 
+    /**
+     * Retrieve ParkourSession for the player.
+     * Safe to use from any thread.
+     *
+     * @param player
+     * @return ParkourSession, or null if the player isn't on a course
+     */
+    public static ParkourSession getParkourSession(Player player) {
+        return parkourPlayers.getSession(player.getUniqueId());
+    }
+
     /**
      * Retrieve ParkourSession for player based on their name.
      *
@@ -581,11 +613,17 @@ public class PlayerMethods {
      * @return ParkourSession
      */
     public static ParkourSession getParkourSession(String playerName) {
-        if (isPlaying(playerName)) {
-            return parkourPlayers.get(playerName);
-        }
+        return parkourPlayers.getSession(playerName);
+    }
 
-        return null;
+    /**
+     * Return if a player is on a course
+     *
+     * @param player
+     * @return boolean
+     */
+    public static boolean isPlaying(Player player) {
+        return getParkourSession(player) != null;
     }
 
     /**
@@ -595,25 +633,60 @@ public class PlayerMethods {
      * @return boolean
      */
     public static boolean isPlaying(String playerName) {
-        return parkourPlayers.get(playerName) != null;
+        return getParkourSession(playerName) != null;
     }
 
     /**
-     * Get the Map of players using the plugin
+     * Get the sessions of the players using the plugin
      *
-     * @return HashMap<playerName, ParkourSession>
+     * @return SessionRegistry
      */
-    public static HashMap<String, ParkourSession> getPlaying() {
+    public static SessionRegistry getPlaying() {
         return parkourPlayers;
     }
 
     /**
-     * Overwrite the playing players, populates when the plugin starts
+     * Overwrite the playing players, populates when the plugin starts from the sessions saved by an older version
      *
      * @param players
      */
-    public static void setPlaying(HashMap<String, ParkourSession> players) {
-        parkourPlayers = players;
+    @SuppressWarnings("deprecation")
+    public static void setPlaying(Map<String, ParkourSession> players) {
+        parkourPlayers.clear();
+
+        for (Map.Entry<String, ParkourSession> entry : players.entrySet()) {
+            OfflinePlayer player = Bukkit.getOfflinePlayer(entry.getKey());
+            parkourPlayers.addSession(player.getUniqueId(), entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Get the players on a course.
+     *
+     * @param courseName
+     * @return unmodifiable set of the UUIDs of the players on the course
+     */
+    public static Set<UUID> getPlayersOnCourse(String courseName) {
+        return parkourPlayers.getPlayersOnCourse(courseName);
+    }
+
+    /**
+     * Remove every player from the course, so it can be deleted.
+     * The players online leave the course, the saved sessions of the players offline are discarded.
+     *
+     * @param courseName
+     */
+    public static void removePlayersFromCourse(String courseName) {
+        for (UUID playerId : new ArrayList<>(getPlayersOnCourse(courseName))) {
+            Player player = Bukkit.getPlayer(playerId);
+
+            if (player != null) {
+                playerLeave(player);
+
+            } else if (parkourPlayers.removeSession(playerId) != null) {
+                SessionJournalManager.getInstance().sessionEnded(playerId);
+            }
+        }
     }
 
     /**
@@ -667,24 +740,24 @@ public class PlayerMethods {
     /**
      * Add a player and their session to the playing players.
      *
-     * @param playerName
+     * @param player
      * @param session
      */
-    private static ParkourSession addPlayer(String playerName, ParkourSession session) {
-        parkourPlayers.put(playerName, session);
+    private static ParkourSession addPlayer(Player player, ParkourSession session) {
+        parkourPlayers.addSession(player.getUniqueId(), player.getName(), session);
+        SessionJournalManager.getInstance().sessionStarted(player, session);
         return session;
     }
 
     /**
      * Remove a player and their session from the playing players.
      *
-     * @param playerName
+     * @param player
      */
-    private static void removePlayer(String playerName) {
-        ParkourSession session = parkourPlayers.get(playerName);
-        if (session != null) {
-            session.cancelVisualTimer();
-            parkourPlayers.remove(playerName);
+    private static void removePlayer(Player player) {
+        if (parkourPlayers.removeSession(player.getUniqueId()) != null) {
+            SessionClockManager.getInstance().removeSession(player.getName());
+            SessionJournalManager.getInstance().sessionEnded(player);
         }
     }
 
@@ -711,17 +784,15 @@ public class PlayerMethods {
         }
 
         for (Material material : kit.getMaterials()) {
-            String action = kit.getAction(material);
+            ParkourKitAction action = kit.getAction(material);
 
             if (action == null) {
                 continue;
             }
 
-            action = Utils.standardizeText(action);
-
             ItemStack s = new ItemStack(material);
             ItemMeta m = s.getItemMeta();
-            m.setDisplayName(Utils.getTranslation("Kit." + action, false));
+            m.setDisplayName(Utils.getTranslation("Kit." + Utils.standardizeText(action.name()), false));
             s.setItemMeta(m);
             player.getInventory().addItem(s);
         }
@@ -925,9 +996,9 @@ public class PlayerMethods {
      * @param player
      */
     public static void toggleTestmode(String[] args, Player player) {
-        if (isPlaying(player.getName())) {
+        if (isPlaying(player)) {
             if (isPlayerInTestmode(player.getName())) {
-                removePlayer(player.getName());
+                removePlayer(player);
                 Utils.sendActionBar(player, Utils.colour("Test Mode &4disabled"), true);
             } else {
                 player.sendMessage(Static.getParkourString() + "You are not in Test Mode.");
@@ -939,9 +1010,10 @@ public class PlayerMethods {
             if (kit == null) {
                 player.sendMessage(Static.getParkourString() + "ParkourKit " + kitName + " doesn't exist!");
             } else {
-                Checkpoint checkpoint = new Checkpoint(player.getLocation(), 0, 0, 0);
-                ParkourSession session = new ParkourSession(new Course(Constants.TEST_MODE, checkpoint, kit));
-                addPlayer(player.getName(), session);
+                Course course = new Course(Constants.TEST_MODE, kit);
+                course.setCustomCheckpoint(new Checkpoint(player.getLocation(), 0, 0, 0));
+                ParkourSession session = new ParkourSession(course);
+                addPlayer(player, session);
                 Utils.sendActionBar(player, Utils.colour("Test Mode &2enabled&f. Simulating &b" + kitName + "&f ParkourKit."), true);
             }
         }
@@ -954,7 +1026,7 @@ public class PlayerMethods {
      * @param player
      */
     public static void invitePlayer(String[] args, Player player) {
-        if (!isPlaying(player.getName())) {
+        if (!isPlaying(player)) {
             player.sendMessage(Static.getParkourString() + "You aren't on a course.");
             return;
         }
@@ -1016,12 +1088,14 @@ public class PlayerMethods {
      * @param player
      */
     private static void setupPlayerMode(Player player) {
-        ParkourSession session = getParkourSession(player.getName());
+        ParkourSession session = getParkourSession(player);
 
         if (session.getMode() == ParkourMode.NONE) {
             return;
         }
 
+        ParkourModeManager.getInstance().applyEffects(player, session.getMode());
+
         if (session.getMode() == ParkourMode.FREEDOM) {
             player.sendMessage(Utils.getTranslation("Mode.Freedom.JoinText"));
             player.getInventory().addItem(Utils.getItemStack(
@@ -1045,12 +1119,14 @@ public class PlayerMethods {
     }
 
     private static void teardownPlayerMode(Player player) {
-        ParkourSession session = getParkourSession(player.getName());
+        ParkourSession session = getParkourSession(player);
 
         if (session.getMode() == ParkourMode.NONE) {
             return;
         }
 
+        ParkourModeManager.getInstance().removeEffects(player, session.getMode());
+
         if (session.getMode() == ParkourMode.SPEEDY) {
             float speed = Float.valueOf(Parkour.getPlugin().getConfig().getString("ParkourModes.Speedy.ResetSpeed"));
             player.setWalkSpeed(speed);
@@ -1067,6 +1143,7 @@ public class PlayerMethods {
      */
     public static void increaseCheckpoint(ParkourSession session, Player player) {
         session.increaseCheckpoint();
+        SessionJournalManager.getInstance().sessionUpdated(player, session);
 
         boolean showTitle = Parkour.getPlugin().getConfig().getBoolean("DisplayTitle.Checkpoint");
         if (session.getCourse().getCheckpoints() == session.getCheckpoint()) {
@@ -1078,7 +1155,7 @@ public class PlayerMethods {
                     showTitle);
         }
         Bukkit.getServer().getPluginManager().callEvent(
-                new PlayerAchieveCheckpointEvent(player, session.getCourse().getName(), session.getCourse().getCurrentCheckpoint()));
+                new PlayerAchieveCheckpointEvent(player, session.getCourse().getName(), session.getCurrentCheckpoint()));
     }
 
     /**
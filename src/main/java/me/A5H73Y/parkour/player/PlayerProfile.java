@@ -0,0 +1,192 @@
+package me.A5H73Y.parkour.player;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+/**
+ * A player's Parkour information, held in memory while it's in use.
+ * Values can be read from any thread without locking, such as the async chat thread.
+ * Changes are made on the main thread, and saved to the player's file in the background.
+ */
+public class PlayerProfile {
+
+    private final UUID playerId;
+
+    private volatile String selected;
+    private volatile String lastPlayed;
+    private volatile String lastCompleted;
+    private volatile String rank;
+    private volatile int level;
+    private volatile int parkoins;
+
+    // replaced rather than modified, so readers never see a set being changed
+    private volatile Set<String> completedCourses = Collections.emptySet();
+    private final Map<String, Long> lastRewarded = new ConcurrentHashMap<>();
+
+    public PlayerProfile(UUID playerId) {
+        this.playerId = playerId;
+    }
+
+    /**
+     * Create the player's profile from the contents of their file.
+     *
+     * @param playerId
+     * @param data
+     * @return player's profile
+     */
+    public static PlayerProfile load(UUID playerId, ConfigurationSection data) {
+        PlayerProfile profile = new PlayerProfile(playerId);
+        profile.selected = data.getString("Selected");
+        profile.lastPlayed = data.getString("LastPlayed");
+        profile.lastCompleted = data.getString("LastCompleted");
+        profile.rank = data.getString("Rank");
+        profile.level = data.getInt("Level");
+        profile.parkoins = data.getInt("Parkoins");
+        profile.completedCourses = Collections.unmodifiableSet(new LinkedHashSet<>(data.getStringList("Completed")));
+
+        ConfigurationSection rewarded = data.getConfigurationSection("LastRewarded");
+        if (rewarded != null) {
+            for (String courseName : rewarded.getKeys(false)) {
+                profile.lastRewarded.put(courseName, rewarded.getLong(courseName));
+            }
+        }
+
+        return profile;
+    }
+
+    /**
+     * Convert the profile into the contents of the player's file.
+     *
+     * @return yaml contents
+     */
+    public String saveToString() {
+        YamlConfiguration data = new YamlConfiguration();
+        data.set("Selected", selected);
+        data.set("LastPlayed", lastPlayed);
+        data.set("LastCompleted", lastCompleted);
+        data.set("Rank", rank);
+        data.set("Level", level);
+        data.set("Parkoins", parkoins);
+
+        if (!completedCourses.isEmpty()) {
+            data.set("Completed", new ArrayList<>(completedCourses));
+        }
+        for (Map.Entry<String, Long> entry : lastRewarded.entrySet()) {
+            data.set("LastRewarded." + entry.getKey(), entry.getValue());
+        }
+
+        return data.saveToString();
+    }
+
+    public UUID getPlayerId() {
+        return playerId;
+    }
+
+    public String getSelected() {
+        return selected;
+    }
+
+    public void setSelected(String selected) {
+        this.selected = selected;
+    }
+
+    public String getLastPlayed() {
+        return lastPlayed;
+    }
+
+    public void setLastPlayed(String lastPlayed) {
+        this.lastPlayed = lastPlayed;
+    }
+
+    public String getLastCompleted() {
+        return lastCompleted;
+    }
+
+    public void setLastCompleted(String lastCompleted) {
+        this.lastCompleted = lastCompleted;
+    }
+
+    /**
+     * @return the achieved rank, null if the player hasn't achieved one
+     */
+    public String getRank() {
+        return rank;
+    }
+
+    public void setRank(String rank) {
+        this.rank = rank;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public void setLevel(int level) {
+        this.level = level;
+    }
+
+    public int getParkoins() {
+        return parkoins;
+    }
+
+    public void setParkoins(int parkoins) {
+        this.parkoins = parkoins;
+    }
+
+    /**
+     * @return unmodifiable set of the completed course names
+     */
+    public Set<String> getCompletedCourses() {
+        return completedCourses;
+    }
+
+    /**
+     * Add the course to the completed courses.
+     *
+     * @param courseName
+     * @return the course wasn't already completed
+     */
+    public boolean addCompletedCourse(String courseName) {
+        if (completedCourses.contains(courseName)) {
+            return false;
+        }
+
+        Set<String> updated = new LinkedHashSet<>(completedCourses);
+        updated.add(courseName);
+        completedCourses = Collections.unmodifiableSet(updated);
+        return true;
+    }
+
+    /**
+     * Remove the course from the completed courses.
+     *
+     * @param courseName
+     * @return the course was completed
+     */
+    public boolean removeCompletedCourse(String courseName) {
+        if (!completedCourses.contains(courseName)) {
+            return false;
+        }
+
+        Set<String> updated = new LinkedHashSet<>(completedCourses);
+        updated.remove(courseName);
+        completedCourses = Collections.unmodifiableSet(updated);
+        return true;
+    }
+
+    public long getLastRewarded(String courseName) {
+        return lastRewarded.getOrDefault(courseName, 0L);
+    }
+
+    public void setLastRewarded(String courseName, long rewardTime) {
+        lastRewarded.put(courseName, rewardTime);
+    }
+}
@@ -0,0 +1,143 @@
+package me.A5H73Y.parkour.player;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The ParkourSession of each player on a course, by their UUID.
+ * Sessions are added and removed on the main thread, but can be read from any thread without locking,
+ * such as the async chat thread.
+ * The players are also indexed by name and by course, so neither lookup has to go through every session.
+ */
+public class SessionRegistry {
+
+    private final Map<UUID, ParkourSession> sessions = new ConcurrentHashMap<>();
+    private final Map<UUID, String> playerNames = new ConcurrentHashMap<>();
+    private final Map<String, UUID> playerIds = new ConcurrentHashMap<>();
+    private final Map<String, Set<UUID>> coursePlayers = new ConcurrentHashMap<>();
+
+    /**
+     * Get the player's session.
+     *
+     * @param playerId
+     * @return ParkourSession, or null if the player isn't on a course
+     */
+    public ParkourSession getSession(UUID playerId) {
+        return sessions.get(playerId);
+    }
+
+    /**
+     * Get the session of the player with the name.
+     *
+     * @param playerName
+     * @return ParkourSession, or null if the player isn't on a course
+     */
+    public ParkourSession getSession(String playerName) {
+        UUID playerId = playerName == null ? null : playerIds.get(playerName);
+        return playerId == null ? null : sessions.get(playerId);
+    }
+
+    /**
+     * Add the player's session, replacing any session they already have.
+     *
+     * @param playerId
+     * @param playerName
+     * @param session
+     */
+    public void addSession(UUID playerId, String playerName, ParkourSession session) {
+        removeSession(playerId);
+
+        sessions.put(playerId, session);
+        playerNames.put(playerId, playerName);
+        playerIds.put(playerName, playerId);
+        coursePlayers.computeIfAbsent(getCourseKey(session), key -> ConcurrentHashMap.newKeySet()).add(playerId);
+    }
+
+    /**
+     * Remove the player's session.
+     *
+     * @param playerId
+     * @return the removed ParkourSession, or null if the player wasn't on a course
+     */
+    public ParkourSession removeSession(UUID playerId) {
+        ParkourSession session = sessions.remove(playerId);
+        String playerName = playerNames.remove(playerId);
+
+        if (playerName != null) {
+            playerIds.remove(playerName, playerId);
+        }
+
+        if (session != null) {
+            coursePlayers.computeIfPresent(getCourseKey(session), (key, players) -> {
+                players.remove(playerId);
+                return players.isEmpty() ? null : players;
+            });
+        }
+
+        return session;
+    }
+
+    /**
+     * Find the UUID of the player on a course with the name.
+     *
+     * @param playerName
+     * @return UUID, or null if they aren't on a course
+     */
+    public UUID getPlayerId(String playerName) {
+        return playerIds.get(playerName);
+    }
+
+    /**
+     * Find the name of the player on a course.
+     *
+     * @param playerId
+     * @return player name, or null if they aren't on a course
+     */
+    public String getPlayerName(UUID playerId) {
+        return playerNames.get(playerId);
+    }
+
+    /**
+     * Get the players on the course.
+     *
+     * @param courseName
+     * @return unmodifiable set of the UUIDs of the players on the course
+     */
+    public Set<UUID> getPlayersOnCourse(String courseName) {
+        Set<UUID> players = coursePlayers.get(courseName.toLowerCase());
+        return players == null ? Collections.emptySet() : Collections.unmodifiableSet(players);
+    }
+
+    /**
+     * @return unmodifiable view of the UUIDs of the players on a course
+     */
+    public Set<UUID> getPlayerIds() {
+        return Collections.unmodifiableSet(sessions.keySet());
+    }
+
+    /**
+     * @return unmodifiable view of every session
+     */
+    public Collection<ParkourSession> getSessions() {
+        return Collections.unmodifiableCollection(sessions.values());
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    public void clear() {
+        sessions.clear();
+        playerNames.clear();
+        playerIds.clear();
+        coursePlayers.clear();
+    }
+
+    private static String getCourseKey(ParkourSession session) {
+        return session.getCourse().getName().toLowerCase();
+    }
+}
@@ -0,0 +1,158 @@
+package me.A5H73Y.parkour.player;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import me.A5H73Y.parkour.course.Course;
+import me.A5H73Y.parkour.course.CourseMethods;
+import me.A5H73Y.parkour.utilities.Utils;
+
+/**
+ * Binary snapshot of the ParkourSessions, so players can continue their course after a restart.
+ * Only the state of each session is stored, the course is looked up again when the session is restored.
+ *
+ * The file starts with a magic number, the format version and the number of sessions,
+ * followed by the state of each session.
+ */
+public class SessionSnapshot {
+
+    private static final int MAGIC = 0x504B5353;
+    private static final int VERSION = 1;
+
+    private SessionSnapshot() {
+    }
+
+    /**
+     * Capture the state of every session in the registry.
+     * Must be called on the main thread, so the sessions can't change while they're captured.
+     *
+     * @param registry
+     * @return state of each session
+     */
+    public static List<SessionState> capture(SessionRegistry registry) {
+        List<SessionState> states = new ArrayList<>(registry.size());
+
+        for (UUID playerId : registry.getPlayerIds()) {
+            ParkourSession session = registry.getSession(playerId);
+            String playerName = registry.getPlayerName(playerId);
+
+            if (session != null && playerName != null) {
+                states.add(SessionState.of(playerId, playerName, session));
+            }
+        }
+
+        return states;
+    }
+
+    /**
+     * Write the sessions to the file.
+     * The file is replaced once the snapshot has been completely written.
+     *
+     * @param states
+     * @param file
+     */
+    public static void write(Collection<SessionState> states, File file) {
+        Path target = file.toPath();
+        Path temp = new File(file.getParentFile(), file.getName() + ".tmp").toPath();
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp.toFile())))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeInt(states.size());
+
+            for (SessionState state : states) {
+                state.writeTo(out);
+            }
+
+        } catch (IOException ex) {
+            Utils.log("Failed to save the sessions: " + ex.getMessage(), 2);
+            ex.printStackTrace();
+            return;
+        }
+
+        try {
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException ex) {
+            Utils.log("Failed to save the sessions: " + ex.getMessage(), 2);
+            ex.printStackTrace();
+        }
+    }
+
+    /**
+     * Read the sessions from the file.
+     *
+     * @param file
+     * @return state of each session, by player UUID
+     */
+    public static Map<UUID, SessionState> read(File file) {
+        Map<UUID, SessionState> states = new LinkedHashMap<>();
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a session snapshot");
+            }
+
+            int version = in.readUnsignedShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported session snapshot version " + version);
+            }
+
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                SessionState state = SessionState.readFrom(in);
+                states.put(state.getPlayerId(), state);
+            }
+
+        } catch (IOException ex) {
+            Utils.log("Failed to load the sessions: " + ex.getMessage(), 2);
+        }
+
+        return states;
+    }
+
+    /**
+     * Restore the sessions into the registry.
+     * A session on a course which no longer exists is not restored.
+     *
+     * @param states
+     * @param registry
+     * @return number of sessions restored
+     */
+    public static int restore(Collection<SessionState> states, SessionRegistry registry) {
+        int restored = 0;
+
+        for (SessionState state : states) {
+            Course course = CourseMethods.findByName(state.getCourseName());
+            if (course == null) {
+                Utils.log("Session of " + state.getPlayerName() + " not restored, course "
+                        + state.getCourseName() + " no longer exists.", 1);
+                continue;
+            }
+
+            registry.addSession(state.getPlayerId(), state.getPlayerName(), state.restore(course));
+            restored++;
+        }
+
+        return restored;
+    }
+}
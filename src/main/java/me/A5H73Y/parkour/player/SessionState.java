@@ -0,0 +1,159 @@
+package me.A5H73Y.parkour.player;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.UUID;
+
+import me.A5H73Y.parkour.course.Course;
+import me.A5H73Y.parkour.enums.ParkourMode;
+
+/**
+ * The saved state of a ParkourSession, without the course it's on.
+ * Used to save sessions to disk and to restore them afterwards.
+ */
+public class SessionState {
+
+    private final UUID playerId;
+    private final String playerName;
+    private final String courseName;
+    private ParkourMode mode;
+    private int checkpoint;
+    private int deaths;
+    private long time;
+    private int seconds;
+
+    public SessionState(UUID playerId, String playerName, String courseName, ParkourMode mode,
+                        int checkpoint, int deaths, long time, int seconds) {
+        this.playerId = playerId;
+        this.playerName = playerName;
+        this.courseName = courseName;
+        this.mode = mode;
+        this.checkpoint = checkpoint;
+        this.deaths = deaths;
+        this.time = time;
+        this.seconds = seconds;
+    }
+
+    /**
+     * Capture the current state of the player's session.
+     *
+     * @param playerId
+     * @param playerName
+     * @param session
+     * @return SessionState
+     */
+    public static SessionState of(UUID playerId, String playerName, ParkourSession session) {
+        return new SessionState(playerId, playerName, session.getCourse().getName(), session.getMode(),
+                session.getCheckpoint(), session.getDeaths(), session.getTime(), session.getSeconds());
+    }
+
+    /**
+     * Read a state written by {@link #writeTo(DataOutput)}.
+     *
+     * @param in
+     * @return SessionState
+     * @throws IOException
+     */
+    public static SessionState readFrom(DataInput in) throws IOException {
+        UUID playerId = new UUID(in.readLong(), in.readLong());
+        String playerName = in.readUTF();
+        String courseName = in.readUTF();
+        ParkourMode mode = lookupMode(in.readUTF());
+
+        return new SessionState(playerId, playerName, courseName, mode,
+                in.readInt(), in.readInt(), in.readLong(), in.readInt());
+    }
+
+    /**
+     * Write the whole state.
+     *
+     * @param out
+     * @throws IOException
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeLong(playerId.getMostSignificantBits());
+        out.writeLong(playerId.getLeastSignificantBits());
+        out.writeUTF(playerName);
+        out.writeUTF(courseName);
+        out.writeUTF(mode.name());
+        out.writeInt(checkpoint);
+        out.writeInt(deaths);
+        out.writeLong(time);
+        out.writeInt(seconds);
+    }
+
+    /**
+     * Update the progress through the course.
+     *
+     * @param mode
+     * @param checkpoint
+     * @param deaths
+     * @param time
+     * @param seconds
+     */
+    public void setProgress(ParkourMode mode, int checkpoint, int deaths, long time, int seconds) {
+        this.mode = mode;
+        this.checkpoint = checkpoint;
+        this.deaths = deaths;
+        this.time = time;
+        this.seconds = seconds;
+    }
+
+    /**
+     * Create the session again, on the course as it is now.
+     *
+     * @param course
+     * @return ParkourSession
+     */
+    ParkourSession restore(Course course) {
+        return new ParkourSession(course, mode, checkpoint, deaths, time, seconds);
+    }
+
+    /**
+     * Find the ParkourMode by its saved name.
+     * A mode which no longer exists is treated as no mode.
+     *
+     * @param modeName
+     * @return ParkourMode
+     */
+    public static ParkourMode lookupMode(String modeName) {
+        try {
+            return ParkourMode.valueOf(modeName);
+        } catch (IllegalArgumentException ex) {
+            return ParkourMode.NONE;
+        }
+    }
+
+    public UUID getPlayerId() {
+        return playerId;
+    }
+
+    public String getPlayerName() {
+        return playerName;
+    }
+
+    public String getCourseName() {
+        return courseName;
+    }
+
+    public ParkourMode getMode() {
+        return mode;
+    }
+
+    public int getCheckpoint() {
+        return checkpoint;
+    }
+
+    public int getDeaths() {
+        return deaths;
+    }
+
+    public long getTime() {
+        return time;
+    }
+
+    public int getSeconds() {
+        return seconds;
+    }
+}
@@ -1,77 +1,207 @@
 package me.A5H73Y.parkour.utilities;
 
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
+import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import com.huskehhh.mysql.RowMapper;
 import me.A5H73Y.parkour.Parkour;
 import me.A5H73Y.parkour.course.CourseInfo;
 import me.A5H73Y.parkour.enums.DatabaseType;
+import me.A5H73Y.parkour.manager.DatabaseQueryManager;
+import me.A5H73Y.parkour.manager.DatabaseWriteManager;
+import me.A5H73Y.parkour.manager.DatabaseWriteManager.QueuedStatement;
+import me.A5H73Y.parkour.manager.LeaderboardManager;
+import me.A5H73Y.parkour.manager.VoteManager;
+import me.A5H73Y.parkour.other.LeaderboardPosition;
 import me.A5H73Y.parkour.other.TimeObject;
-import me.A5H73Y.parkour.player.PlayerMethods;
 import org.bukkit.Bukkit;
-import org.bukkit.entity.Player;
 
 public class DatabaseMethods {
 
     public static DatabaseType type;
 
+    private static final Map<String, Integer> courseIds = new ConcurrentHashMap<>();
+    private static final Map<Integer, String> courseNames = new ConcurrentHashMap<>();
+    // courses whose insert is still waiting to be written
+    private static final Set<String> pendingCourses = ConcurrentHashMap.newKeySet();
+    // courses which weren't found, so the database isn't asked again straight away
+    private static final Map<String, Long> missedCourses = new ConcurrentHashMap<>();
+    private static final long MISSED_COURSE_EXPIRY = 60000;
+    private static volatile boolean courseIdsLoaded;
+
+    private static final RowMapper<TimeObject> TIME_MAPPER = rs ->
+            new TimeObject(rs.getString("player"), rs.getLong("time"), rs.getInt("deaths"));
+
     public static void setupTables() {
+        Connection connection = null;
         try {
-            if (type.equals(DatabaseType.SQLite)) {
-                String tableScript =
-                        "CREATE TABLE IF NOT EXISTS course (courseId INTEGER PRIMARY KEY, name VARCHAR(15) NOT NULL UNIQUE, author VARCHAR(20) NOT NULL, created TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL); " +
+            connection = Parkour.getDatabase().borrowConnection();
+
+            try (Statement statement = connection.createStatement()) {
+                if (type.equals(DatabaseType.SQLite)) {
+                    String tableScript =
+                            "CREATE TABLE IF NOT EXISTS course (courseId INTEGER PRIMARY KEY, name VARCHAR(15) NOT NULL UNIQUE, author VARCHAR(20) NOT NULL, created TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL); " +
 
-                                "CREATE TABLE IF NOT EXISTS time (timeId INTEGER PRIMARY KEY, courseId INTEGER NOT NULL, player VARCHAR(20) NOT NULL, time DECIMAL(13,0) NOT NULL, deaths INT(5) NOT NULL, FOREIGN KEY (courseId) REFERENCES course(courseId) ON DELETE CASCADE ON UPDATE CASCADE); " +
+                                    "CREATE TABLE IF NOT EXISTS time (timeId INTEGER PRIMARY KEY, courseId INTEGER NOT NULL, player VARCHAR(20) NOT NULL, time BIGINT NOT NULL, deaths INT(5) NOT NULL, FOREIGN KEY (courseId) REFERENCES course(courseId) ON DELETE CASCADE ON UPDATE CASCADE); " +
 
-                                "CREATE TABLE IF NOT EXISTS vote (courseId INTEGER NOT NULL, player VARCHAR(20) NOT NULL, liked BIT NOT NULL, PRIMARY KEY (courseId, player), FOREIGN KEY (courseId) REFERENCES course(courseId) ON DELETE CASCADE ON UPDATE CASCADE); ";
+                                    "CREATE TABLE IF NOT EXISTS vote (courseId INTEGER NOT NULL, player VARCHAR(20) NOT NULL, liked BIT NOT NULL, PRIMARY KEY (courseId, player), FOREIGN KEY (courseId) REFERENCES course(courseId) ON DELETE CASCADE ON UPDATE CASCADE); ";
 
-                Parkour.getDatabase().updateSQL(tableScript);
+                    statement.executeUpdate(tableScript);
 
-            } else if (type.equals(DatabaseType.MySQL)) {
-                String tableScript = "CREATE TABLE IF NOT EXISTS course (courseId INTEGER PRIMARY KEY AUTO_INCREMENT, name VARCHAR(15) NOT NULL UNIQUE, author VARCHAR(20) NOT NULL, created TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL); ";
-                Parkour.getDatabase().updateSQL(tableScript);
-                tableScript = "CREATE TABLE IF NOT EXISTS time (timeId INTEGER PRIMARY KEY AUTO_INCREMENT, courseId INTEGER NOT NULL, player VARCHAR(20) NOT NULL, time DECIMAL(13,0) NOT NULL, deaths INT(5) NOT NULL, FOREIGN KEY (courseId) REFERENCES course(courseId) ON DELETE CASCADE ON UPDATE CASCADE); ";
-                Parkour.getDatabase().updateSQL(tableScript);
-                tableScript = "CREATE TABLE IF NOT EXISTS vote (courseId INTEGER NOT NULL, player VARCHAR(20) NOT NULL, liked BIT NOT NULL, PRIMARY KEY (courseId, player), FOREIGN KEY (courseId) REFERENCES course(courseId) ON DELETE CASCADE ON UPDATE CASCADE); ";
-                Parkour.getDatabase().updateSQL(tableScript);
+                } else if (type.equals(DatabaseType.MySQL)) {
+                    String tableScript = "CREATE TABLE IF NOT EXISTS course (courseId INTEGER PRIMARY KEY AUTO_INCREMENT, name VARCHAR(15) NOT NULL UNIQUE, author VARCHAR(20) NOT NULL, created TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL); ";
+                    statement.executeUpdate(tableScript);
+                    tableScript = "CREATE TABLE IF NOT EXISTS time (timeId INTEGER PRIMARY KEY AUTO_INCREMENT, courseId INTEGER NOT NULL, player VARCHAR(20) NOT NULL, time BIGINT NOT NULL, deaths INT(5) NOT NULL, FOREIGN KEY (courseId) REFERENCES course(courseId) ON DELETE CASCADE ON UPDATE CASCADE); ";
+                    statement.executeUpdate(tableScript);
+                    tableScript = "CREATE TABLE IF NOT EXISTS vote (courseId INTEGER NOT NULL, player VARCHAR(20) NOT NULL, liked BIT NOT NULL, PRIMARY KEY (courseId, player), FOREIGN KEY (courseId) REFERENCES course(courseId) ON DELETE CASCADE ON UPDATE CASCADE); ";
+                    statement.executeUpdate(tableScript);
+                }
             }
         } catch (ClassNotFoundException | SQLException e) {
             e.printStackTrace();
         } finally {
-            Parkour.getDatabase().closeConnection();
+            Parkour.getDatabase().returnConnection(connection);
+        }
+    }
+
+    /**
+     * Populate the course ID cache with every course in the database.
+     * Any previously cached entries are discarded.
+     */
+    public static void loadCourseIds() {
+        try {
+            List<Map.Entry<String, Integer>> courses = Parkour.getDatabase().query("SELECT courseId, name FROM course;",
+                    rs -> new AbstractMap.SimpleImmutableEntry<>(rs.getString("name"), rs.getInt("courseId")));
+
+            synchronized (courseIds) {
+                courseIds.clear();
+                courseNames.clear();
+                for (Map.Entry<String, Integer> course : courses) {
+                    cacheCourseId(course.getKey(), course.getValue());
+                }
+            }
+            missedCourses.clear();
+            courseIdsLoaded = true;
+        } catch (SQLException | ClassNotFoundException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Lookup the course's unique ID from the cache, without touching the database.
+     *
+     * @param courseName
+     * @return course ID if cached
+     */
+    public static OptionalInt getCachedCourseId(String courseName) {
+        Integer courseId = courseIds.get(courseName.toLowerCase());
+        return courseId == null ? OptionalInt.empty() : OptionalInt.of(courseId);
+    }
+
+    /**
+     * Lookup the course's name from the cache, without touching the database.
+     *
+     * @param courseId
+     * @return course name, null if not cached
+     */
+    public static String getCachedCourseName(int courseId) {
+        return courseNames.get(courseId);
+    }
+
+    private static void cacheCourseId(String courseName, int courseId) {
+        synchronized (courseIds) {
+            courseIds.put(courseName.toLowerCase(), courseId);
+            courseNames.put(courseId, courseName.toLowerCase());
+        }
+        missedCourses.remove(courseName.toLowerCase());
+    }
+
+    private static void uncacheCourseId(String courseName) {
+        synchronized (courseIds) {
+            Integer courseId = courseIds.remove(courseName.toLowerCase());
+            if (courseId != null) {
+                courseNames.remove(courseId);
+            }
         }
     }
 
+    /**
+     * Check the course exists in the database before queueing a write for it.
+     * The course's ID is resolved by the write itself, this avoids queueing writes which would do nothing.
+     * A course still waiting to be inserted is known, its insert is written before anything queued after it.
+     * If the cache couldn't be loaded, the write is queued regardless.
+     *
+     * @param courseName
+     * @return course is known
+     */
+    private static boolean isKnownCourse(String courseName) {
+        return !courseIdsLoaded || pendingCourses.contains(courseName.toLowerCase()) || getCourseId(courseName) != 0;
+    }
+
     public static int getCourseId(String courseName) {
         return getCourseId(courseName, true);
     }
 
     /**
      * Return the course's unique ID based on its name in the database.
+     * The cache is checked first, the database is only queried on a miss.
+     * The server thread never waits on the database, a miss there is looked up on a query thread instead.
+     * A course which wasn't found isn't looked up again for a minute.
      *
      * @param courseName
-     * @return
-     * @throws SQLException
+     * @return course ID, 0 if it isn't known
      */
     public static int getCourseId(String courseName, boolean printError) {
+        OptionalInt cachedId = getCachedCourseId(courseName);
+        if (cachedId.isPresent()) {
+            return cachedId.getAsInt();
+        }
+
+        Long missed = missedCourses.get(courseName.toLowerCase());
+        if (missed != null && System.currentTimeMillis() - missed < MISSED_COURSE_EXPIRY) {
+            return 0;
+        }
+
+        if (Bukkit.isPrimaryThread()) {
+            DatabaseQueryManager.getInstance().supplyAsync(() -> lookupCourseId(courseName, printError));
+            return 0;
+        }
+
+        return lookupCourseId(courseName, printError);
+    }
+
+    /**
+     * Query the database for the course's ID, caching the result.
+     */
+    private static int lookupCourseId(String courseName, boolean printError) {
         int courseId = 0;
 
         try {
-            PreparedStatement ps = Parkour.getDatabase().openConnection().prepareStatement("SELECT courseId FROM course WHERE name = ?;");
-            ps.setString(1, courseName);
-
-            ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                courseId = rs.getInt("courseId");
+            Integer result = Parkour.getDatabase().querySingle("SELECT courseId FROM course WHERE name = ?;",
+                    rs -> rs.getInt("courseId"), courseName);
+
+            if (result != null) {
+                courseId = result;
+                cacheCourseId(courseName, courseId);
+            } else {
+                missedCourses.put(courseName.toLowerCase(), System.currentTimeMillis());
             }
-
         } catch (SQLException | ClassNotFoundException e) {
             e.printStackTrace();
-        } finally {
-            Parkour.getDatabase().closeConnection();
         }
 
         if (courseId == 0 && printError) {
@@ -81,23 +211,48 @@ public class DatabaseMethods {
     }
 
     /**
-     * Processes a ResultSet and returns a list of TimeObjects
+     * Retrieve each player's fastest times for every course, grouped by course name.
+     * Times equal to the slowest included time are also included, so a player may have more than the limit.
      *
-     * @param rs ResultSet
-     * @return
-     * @throws SQLException
+     * @param playerLimit number of times to retrieve for each player on each course
+     * @return times for each course, null if they couldn't be retrieved
      */
-    private static List<TimeObject> processTimes(ResultSet rs) throws SQLException {
-        List<TimeObject> times = new ArrayList<>();
+    public static Map<String, List<TimeObject>> getAllCourseTimes(int playerLimit) {
+        return getTimesByCourse("SELECT c.name, t.player, t.time, t.deaths FROM time t JOIN course c ON c.courseId = t.courseId "
+                + "WHERE (SELECT COUNT(*) FROM time f WHERE f.courseId = t.courseId AND f.player = t.player AND f.time < t.time) < ?;",
+                playerLimit);
+    }
+
+    /**
+     * Retrieve every personal best in the database, grouped by course name.
+     *
+     * @return personal bests for each course, null if they couldn't be retrieved
+     */
+    public static Map<String, List<TimeObject>> getAllPersonalBests() {
+        return getTimesByCourse("SELECT c.name, p.player, p.time, p.deaths FROM personal_best p JOIN course c ON c.courseId = p.courseId;");
+    }
+
+    /**
+     * Execute the query and group the times by the course name.
+     *
+     * @param sql query selecting the course name and time columns
+     * @param parameters parameters to bind
+     * @return times for each course, null if they couldn't be retrieved
+     */
+    private static Map<String, List<TimeObject>> getTimesByCourse(String sql, Object... parameters) {
+        Map<String, List<TimeObject>> courseTimes = new HashMap<>();
+        try {
+            List<Map.Entry<String, TimeObject>> results = Parkour.getDatabase().query(sql,
+                    rs -> new AbstractMap.SimpleImmutableEntry<>(rs.getString("name").toLowerCase(), TIME_MAPPER.map(rs)), parameters);
 
-        while (rs.next()) {
-            TimeObject time = new TimeObject(
-                    rs.getString("player"),
-                    rs.getLong("time"),
-                    rs.getInt("deaths"));
-            times.add(time);
+            for (Map.Entry<String, TimeObject> result : results) {
+                courseTimes.computeIfAbsent(result.getKey(), name -> new ArrayList<>()).add(result.getValue());
+            }
+        } catch (SQLException | ClassNotFoundException e) {
+            e.printStackTrace();
+            return null;
         }
-        return times;
+        return courseTimes;
     }
 
     /**
@@ -108,21 +263,19 @@ public class DatabaseMethods {
      * @param playerName
      */
     public static void insertCourse(String courseName, String playerName) {
-        try {
-            PreparedStatement ps = Parkour.getDatabase().openConnection()
-                    .prepareStatement("INSERT INTO `course` (`name`, `author`) VALUES (?, ?);");
-            ps.setString(1, courseName);
-            ps.setString(2, playerName);
-            ps.executeUpdate();
-        } catch (SQLException | ClassNotFoundException e) {
-            e.printStackTrace();
-        } finally {
-            Parkour.getDatabase().closeConnection();
-        }
+        pendingCourses.add(courseName.toLowerCase());
+        missedCourses.remove(courseName.toLowerCase());
+        DatabaseWriteManager.getInstance().queueAtomic(() -> {
+                    lookupCourseId(courseName, false);
+                    pendingCourses.remove(courseName.toLowerCase());
+                },
+                // the course can be created again with "/pa recreate"
+                () -> pendingCourses.remove(courseName.toLowerCase()),
+                new QueuedStatement("INSERT INTO `course` (`name`, `author`) VALUES (?, ?);", courseName, playerName));
     }
 
     /**
-     * Insert a time into the database for the players course Progress.
+     * Create the statement to insert a time into the database for the players course Progress.
      * There are no unique constraints on the times table, so the user is able to have many times for many courses
      *
      * @param courseName
@@ -130,53 +283,72 @@ public class DatabaseMethods {
      * @param time
      * @param deaths
      */
-    private static void insertTime(String courseName, String playerName, long time, int deaths) {
-        try {
-            int courseId = getCourseId(courseName);
-            if (courseId == 0) {
-                return;
-            }
-
-            PreparedStatement ps = Parkour.getDatabase().openConnection()
-                    .prepareStatement("INSERT INTO `time` (`courseId`, `player`, `time`, `deaths`) VALUES (?, ?, ?, ?);");
-            ps.setInt(1, courseId);
-            ps.setString(2, playerName);
-            ps.setLong(3, time);
-            ps.setInt(4, deaths);
-            ps.executeUpdate();
-        } catch (SQLException | ClassNotFoundException e) {
-            e.printStackTrace();
-        } finally {
-            Parkour.getDatabase().closeConnection();
-        }
+    private static QueuedStatement createInsertTime(String courseName, String playerName, long time, int deaths) {
+        return new QueuedStatement("INSERT INTO `time` (`courseId`, `player`, `time`, `deaths`) SELECT `courseId`, ?, ?, ? FROM `course` WHERE `name`=?;",
+                playerName, time, deaths, courseName);
     }
 
     /**
-     * Insert or Update player's time on course
-     * Based on a config option, whether to insert or update
-     * Updating will only apply once the player has beaten their best time
+     * Create the statements to save the player's personal best for the course.
+     * An existing personal best is only overwritten if the new time is lower.
+     * SQLite's upsert needs 3.24, which is newer than the driver bundled with older servers,
+     * so the personal best is inserted if missing and then updated if the time is lower.
      *
      * @param courseName
-     * @param player
+     * @param playerName
      * @param time
      * @param deaths
      */
-    public static void insertOrUpdateTime(String courseName, Player player, long time, int deaths) {
-        boolean isNewRecord = false;
-        boolean updatePlayerTime = Parkour.getPlugin().getConfig().getBoolean("OnFinish.UpdatePlayerDatabaseTime");
-
-        if (Parkour.getPlugin().getConfig().getBoolean("OnFinish.DisplayNewRecords") || updatePlayerTime) {
-            isNewRecord = PlayerMethods.isNewRecord(player, courseName, time);
+    private static List<QueuedStatement> createUpsertPersonalBest(String courseName, String playerName, long time, int deaths) {
+        if (type == DatabaseType.MySQL) {
+            // assignments are evaluated in order, so time must be updated last
+            return Collections.singletonList(new QueuedStatement("INSERT INTO `personal_best` (`courseId`, `player`, `time`, `deaths`, `achieved`) "
+                    + "SELECT `courseId`, ?, ?, ?, CURRENT_TIMESTAMP FROM `course` WHERE `name`=? "
+                    + "ON DUPLICATE KEY UPDATE "
+                    + "`deaths` = IF(VALUES(`time`) < `time`, VALUES(`deaths`), `deaths`), "
+                    + "`achieved` = IF(VALUES(`time`) < `time`, VALUES(`achieved`), `achieved`), "
+                    + "`time` = IF(VALUES(`time`) < `time`, VALUES(`time`), `time`);",
+                    playerName, time, deaths, courseName));
         }
 
-        if (isNewRecord && updatePlayerTime) {
-            deletePlayerCourseTimes(player.getName(), courseName);
-            insertTime(courseName, player.getName(), time, deaths);
+        return Arrays.asList(
+                new QueuedStatement("INSERT OR IGNORE INTO `personal_best` (`courseId`, `player`, `time`, `deaths`, `achieved`) "
+                        + "SELECT `courseId`, ?, ?, ?, CURRENT_TIMESTAMP FROM `course` WHERE `name`=?;",
+                        playerName, time, deaths, courseName),
+                new QueuedStatement("UPDATE `personal_best` SET `time`=?, `deaths`=?, `achieved`=CURRENT_TIMESTAMP "
+                        + "WHERE `courseId`=(SELECT `courseId` FROM `course` WHERE `name`=?) AND `player`=? AND `time` > ?;",
+                        time, deaths, courseName, playerName, time));
+    }
+
+    /**
+     * Save the player's time on course
+     * The player's personal best is always updated if the time is lower.
+     * Based on a config option, the time is also inserted into the history of times,
+     * otherwise only the personal best is kept.
+     * Safe to call from a query thread.
+     *
+     * @param courseName
+     * @param playerName
+     * @param time
+     * @param deaths
+     * @param keepHistory
+     */
+    public static void insertOrUpdateTime(String courseName, String playerName, long time, int deaths, boolean keepHistory) {
+        if (!isKnownCourse(courseName)) {
             return;
         }
-        if (!updatePlayerTime) {
-            insertTime(courseName, player.getName(), time, deaths);
+
+        List<QueuedStatement> statements = new ArrayList<>();
+        if (keepHistory) {
+            statements.add(createInsertTime(courseName, playerName, time, deaths));
         }
+        statements.addAll(createUpsertPersonalBest(courseName, playerName, time, deaths));
+        // the time is only written if the course has an ID by the time the statements are executed
+        DatabaseWriteManager.getInstance().queueAtomic(() -> {
+            if (getCachedCourseId(courseName).isPresent()) {
+                LeaderboardManager.getInstance().addTime(courseName, new TimeObject(playerName, time, deaths), keepHistory);
+            }
+        }, statements.toArray(new QueuedStatement[0]));
     }
 
     /**
@@ -187,23 +359,14 @@ public class DatabaseMethods {
      * @param like
      */
     public static void insertVote(String courseName, String playerName, Boolean like) {
-        try {
-            int courseId = getCourseId(courseName);
-            if (courseId == 0) {
-                return;
-            }
-
-            PreparedStatement ps = Parkour.getDatabase().openConnection()
-                    .prepareStatement("INSERT INTO `vote` (courseId, player, liked) VALUES (?, ?, ?);");
-            ps.setInt(1, courseId);
-            ps.setString(2, playerName);
-            ps.setBoolean(3, like);
-            ps.executeUpdate();
-        } catch (SQLException | ClassNotFoundException e) {
-            e.printStackTrace();
-        } finally {
-            Parkour.getDatabase().closeConnection();
+        if (!isKnownCourse(courseName)) {
+            return;
         }
+
+        VoteManager.getInstance().setVoted(playerName, courseName);
+        DatabaseWriteManager.getInstance().queueAtomic(() -> VoteManager.getInstance().addVote(courseName, like),
+                new QueuedStatement("INSERT INTO `vote` (`courseId`, `player`, `liked`) SELECT `courseId`, ?, ? FROM `course` WHERE `name`=?;",
+                        playerName, like, courseName));
     }
 
     /**
@@ -213,6 +376,10 @@ public class DatabaseMethods {
      * @return
      */
     public static double getVotePercent(String courseName) {
+        if (VoteManager.getInstance().isLoaded()) {
+            return VoteManager.getInstance().getVotePercent(courseName);
+        }
+
         double percentage = 0;
         try {
             int courseId = getCourseId(courseName);
@@ -220,30 +387,24 @@ public class DatabaseMethods {
                 return 0;
             }
 
-            PreparedStatement ps = Parkour.getDatabase().openConnection()
-                    .prepareStatement("SELECT count(*) AS votes, (SELECT count(*) FROM vote WHERE liked = 1 AND courseId=?) AS likes FROM vote WHERE courseId=?;");
-            ps.setInt(1, courseId);
-            ps.setInt(2, courseId);
+            int[] votes = Parkour.getDatabase().querySingle("SELECT count(*) AS votes, (SELECT count(*) FROM vote WHERE liked = 1 AND courseId=?) AS likes FROM vote WHERE courseId=?;",
+                    rs -> new int[]{rs.getInt("votes"), rs.getInt("likes")}, courseId, courseId);
 
-            final ResultSet rs = ps.executeQuery();
-
-            if (rs.next()) {
-                int total = rs.getInt("votes");
-                int likes = rs.getInt("likes");
-
-                if (total > 0) {
-                    percentage = ((likes * 1.0 / total) * 100);
-                }
+            if (votes != null && votes[0] > 0) {
+                percentage = ((votes[1] * 1.0 / votes[0]) * 100);
             }
         } catch (SQLException | ClassNotFoundException e) {
             e.printStackTrace();
-        } finally {
-            Parkour.getDatabase().closeConnection();
         }
         return percentage;
     }
 
     public static boolean hasVoted(String courseName, String playerName) {
+        if (VoteManager.getInstance().isPlayerLoaded(playerName)
+                || VoteManager.getInstance().hasVoted(playerName, courseName)) {
+            return VoteManager.getInstance().hasVoted(playerName, courseName);
+        }
+
         boolean voted = true;
         try {
             int courseId = getCourseId(courseName);
@@ -251,42 +412,67 @@ public class DatabaseMethods {
                 return true;
             }
 
-            PreparedStatement ps = Parkour.getDatabase().openConnection()
-                    .prepareStatement("SELECT 1 FROM vote WHERE courseId=? AND player=? LIMIT 1;");
-            ps.setInt(1, courseId);
-            ps.setString(2, playerName);
-            ResultSet rs = ps.executeQuery();
-            if (!rs.next()) {
-                voted = false;
-            }
+            voted = Parkour.getDatabase().querySingle("SELECT 1 FROM vote WHERE courseId=? AND player=? LIMIT 1;",
+                    rs -> true, courseId, playerName) != null;
 
         } catch (SQLException | ClassNotFoundException e) {
             e.printStackTrace();
-        } finally {
-            Parkour.getDatabase().closeConnection();
         }
         return voted;
     }
 
     /**
-     * For usage if a player has been banned for cheating etc.
-     * May add an option to hook into deleting a player to automatically remove all their times (if configured)
+     * Retrieve the number of votes and likes for every course, keyed by course name.
+     *
+     * @return total votes followed by likes for each course, null if they couldn't be retrieved
+     */
+    public static Map<String, int[]> getAllVoteCounts() {
+        Map<String, int[]> voteCounts = new HashMap<>();
+        try {
+            List<Map.Entry<String, int[]>> results = Parkour.getDatabase().query("SELECT c.name, COUNT(*) AS votes, SUM(CASE WHEN v.liked = 1 THEN 1 ELSE 0 END) AS likes "
+                            + "FROM vote v JOIN course c ON c.courseId = v.courseId GROUP BY c.name;",
+                    rs -> new AbstractMap.SimpleImmutableEntry<>(rs.getString("name").toLowerCase(), new int[]{rs.getInt("votes"), rs.getInt("likes")}));
+
+            for (Map.Entry<String, int[]> result : results) {
+                voteCounts.put(result.getKey(), result.getValue());
+            }
+        } catch (SQLException | ClassNotFoundException e) {
+            e.printStackTrace();
+            return null;
+        }
+        return voteCounts;
+    }
+
+    /**
+     * Retrieve the names of the courses the player has voted for.
      *
      * @param playerName
+     * @return course names, null if they couldn't be retrieved
      */
-    public static void deleteAllTimesForPlayer(String playerName) {
+    public static List<String> getPlayerVotes(String playerName) {
         try {
-            PreparedStatement ps = Parkour.getDatabase().openConnection()
-                    .prepareStatement("DELETE FROM `time` WHERE `player`=?;");
-            ps.setString(1, playerName);
-            ps.executeUpdate();
+            return Parkour.getDatabase().query("SELECT c.name FROM vote v JOIN course c ON c.courseId = v.courseId WHERE v.player=?;",
+                    rs -> rs.getString("name").toLowerCase(), playerName);
+
         } catch (SQLException | ClassNotFoundException e) {
             e.printStackTrace();
-        } finally {
-            Parkour.getDatabase().closeConnection();
+            return null;
         }
     }
 
+    /**
+     * For usage if a player has been banned for cheating etc.
+     * May add an option to hook into deleting a player to automatically remove all their times (if configured)
+     *
+     * @param playerName
+     */
+    public static void deleteAllTimesForPlayer(String playerName) {
+        DatabaseWriteManager.getInstance().queueAtomic(null,
+                new QueuedStatement("DELETE FROM `time` WHERE `player`=?;", playerName),
+                new QueuedStatement("DELETE FROM `personal_best` WHERE `player`=?;", playerName));
+        LeaderboardManager.getInstance().removePlayerTimes(playerName);
+    }
+
     /**
      * For usage if a course has been deleted.
      * Remove the times, votes and actual course from the database.
@@ -294,16 +480,13 @@ public class DatabaseMethods {
      * @param courseName
      */
     public static void deleteCourseAndReferences(String courseName) {
-        try {
-            PreparedStatement ps = Parkour.getDatabase().openConnection()
-                    .prepareStatement("DELETE FROM `course` WHERE `name`=?;");
-            ps.setString(1, courseName);
-            ps.executeUpdate();
-        } catch (SQLException | ClassNotFoundException e) {
-            e.printStackTrace();
-        } finally {
-            Parkour.getDatabase().closeConnection();
-        }
+        uncacheCourseId(courseName);
+        pendingCourses.remove(courseName.toLowerCase());
+        DatabaseWriteManager.getInstance().queueAtomic(null,
+                new QueuedStatement("DELETE FROM `personal_best` WHERE `courseId`=(SELECT `courseId` FROM `course` WHERE `name`=?);", courseName),
+                new QueuedStatement("DELETE FROM `course` WHERE `name`=?;", courseName));
+        LeaderboardManager.getInstance().removeCourse(courseName);
+        VoteManager.getInstance().removeCourse(courseName);
     }
 
     /**
@@ -312,43 +495,28 @@ public class DatabaseMethods {
      * @param courseName
      */
     public static void deleteCourseTimes(String courseName) {
-        try {
-            int courseId = getCourseId(courseName);
-            if (courseId == 0) {
-                return;
-            }
-
-            PreparedStatement ps = Parkour.getDatabase().openConnection()
-                    .prepareStatement("DELETE FROM `time` WHERE `courseId`=?;");
-            ps.setInt(1, courseId);
-            ps.executeUpdate();
-        } catch (SQLException | ClassNotFoundException e) {
-            e.printStackTrace();
-        } finally {
-            Parkour.getDatabase().closeConnection();
+        if (!isKnownCourse(courseName)) {
+            return;
         }
+
+        DatabaseWriteManager.getInstance().queueAtomic(null,
+                new QueuedStatement("DELETE FROM `time` WHERE `courseId`=(SELECT `courseId` FROM `course` WHERE `name`=?);", courseName),
+                new QueuedStatement("DELETE FROM `personal_best` WHERE `courseId`=(SELECT `courseId` FROM `course` WHERE `name`=?);", courseName));
+        LeaderboardManager.getInstance().removeCourse(courseName);
     }
 
     public static void deletePlayerCourseTimes(String playerName, String courseName) {
-        try {
-            int courseId = getCourseId(courseName);
-            if (courseId == 0) {
-                return;
-            }
-
-            PreparedStatement ps = Parkour.getDatabase().openConnection()
-                    .prepareStatement("DELETE FROM `time` WHERE `player`=? AND `courseId`=?;");
-
-            ps.setString(1, playerName);
-            ps.setInt(2, courseId);
-            ps.executeUpdate();
-        } catch (SQLException | ClassNotFoundException e) {
-            e.printStackTrace();
-        } finally {
-            Parkour.getDatabase().closeConnection();
+        if (!isKnownCourse(courseName)) {
+            return;
         }
+
+        DatabaseWriteManager.getInstance().queueAtomic(null,
+                new QueuedStatement("DELETE FROM `time` WHERE `player`=? AND `courseId`=(SELECT `courseId` FROM `course` WHERE `name`=?);", playerName, courseName),
+                new QueuedStatement("DELETE FROM `personal_best` WHERE `player`=? AND `courseId`=(SELECT `courseId` FROM `course` WHERE `name`=?);", playerName, courseName));
+        LeaderboardManager.getInstance().removePlayerTimes(playerName, courseName);
     }
 
+
     public static List<TimeObject> getTopCourseResults(String courseName) {
         return getTopCourseResults(courseName, 5);
     }
@@ -356,6 +524,10 @@ public class DatabaseMethods {
     public static List<TimeObject> getTopCourseResults(String courseName, int limit) {
         limit = limit < 1 ? 1 : limit > 20 ? 20 : limit;
 
+        if (LeaderboardManager.getInstance().isLoaded()) {
+            return LeaderboardManager.getInstance().getTopResults(courseName, limit);
+        }
+
         List<TimeObject> times = new ArrayList<>();
         try {
             int courseId = getCourseId(courseName.toLowerCase());
@@ -363,17 +535,11 @@ public class DatabaseMethods {
                 return times;
             }
 
-            PreparedStatement ps = Parkour.getDatabase().openConnection()
-                    .prepareStatement("SELECT player, time, deaths FROM time WHERE courseId=? ORDER BY time LIMIT ?;");
-            ps.setInt(1, courseId);
-            ps.setInt(2, limit);
-
-            times = processTimes(ps.executeQuery());
+            times = Parkour.getDatabase().query("SELECT player, time, deaths FROM personal_best WHERE courseId=? ORDER BY time LIMIT ?;",
+                    TIME_MAPPER, courseId, limit);
 
         } catch (SQLException | ClassNotFoundException e) {
             e.printStackTrace();
-        } finally {
-            Parkour.getDatabase().closeConnection();
         }
         return times;
     }
@@ -385,6 +551,10 @@ public class DatabaseMethods {
     public static List<TimeObject> getTopPlayerCourseResults(String playerName, String courseName, int limit) {
         limit = limit < 1 ? 1 : limit > 20 ? 20 : limit;
 
+        if (LeaderboardManager.getInstance().isLoaded()) {
+            return LeaderboardManager.getInstance().getTopPlayerResults(playerName, courseName, limit);
+        }
+
         List<TimeObject> times = new ArrayList<>();
         try {
             int courseId = getCourseId(courseName.toLowerCase());
@@ -392,23 +562,85 @@ public class DatabaseMethods {
                 return times;
             }
 
-            PreparedStatement ps = Parkour.getDatabase().openConnection()
-                    .prepareStatement("SELECT player, time, deaths FROM time WHERE courseId=? AND player=? ORDER BY time LIMIT ?;");
-            ps.setInt(1, courseId);
-            ps.setString(2, playerName);
-            ps.setInt(3, limit);
+            times = Parkour.getDatabase().query("SELECT player, time, deaths FROM time WHERE courseId=? AND player=? ORDER BY time LIMIT ?;",
+                    TIME_MAPPER, courseId, playerName, limit);
 
-            times = processTimes(ps.executeQuery());
+            // the history of times isn't kept, so the personal best is all there is
+            if (times.isEmpty()) {
+                times = Parkour.getDatabase().query("SELECT player, time, deaths FROM personal_best WHERE courseId=? AND player=?;",
+                        TIME_MAPPER, courseId, playerName);
+            }
 
         } catch (SQLException | ClassNotFoundException e) {
             e.printStackTrace();
-        } finally {
-            Parkour.getDatabase().closeConnection();
         }
         return times;
     }
 
+    /**
+     * Get the player's position on the course, based on their personal best.
+     * When the leaderboards aren't loaded, the position is calculated by the database without neighbours.
+     *
+     * @param playerName
+     * @param courseName
+     * @param radius number of neighbours either side of the player
+     * @return player's position, null if they haven't completed the course
+     */
+    public static LeaderboardPosition getLeaderboardPosition(String playerName, String courseName, int radius) {
+        if (LeaderboardManager.getInstance().isLoaded()) {
+            return LeaderboardManager.getInstance().getPosition(playerName, courseName, radius);
+        }
+
+        LeaderboardPosition position = null;
+        try {
+            int courseId = getCourseId(courseName.toLowerCase());
+            if (courseId == 0) {
+                return null;
+            }
+
+            position = Parkour.getDatabase().querySingle("SELECT (SELECT COUNT(*) FROM personal_best f WHERE f.courseId = p.courseId AND f.time < p.time) AS faster, "
+                            + "(SELECT COUNT(*) FROM personal_best t WHERE t.courseId = p.courseId) AS total "
+                            + "FROM personal_best p WHERE p.courseId=? AND p.player=?;",
+                    rs -> new LeaderboardPosition(rs.getInt("faster") + 1, rs.getInt("total")), courseId, playerName);
+
+        } catch (SQLException | ClassNotFoundException e) {
+            e.printStackTrace();
+        }
+        return position;
+    }
+
+    /**
+     * Get the number of players who have completed the course.
+     *
+     * @param courseName
+     * @return number of players
+     */
+    public static int getCompletedPlayerCount(String courseName) {
+        if (LeaderboardManager.getInstance().isLoaded()) {
+            return LeaderboardManager.getInstance().getTotalPlayers(courseName);
+        }
+
+        int total = 0;
+        try {
+            int courseId = getCourseId(courseName.toLowerCase());
+            if (courseId == 0) {
+                return 0;
+            }
+
+            total = Parkour.getDatabase().querySingle("SELECT COUNT(*) AS total FROM personal_best WHERE courseId=?;",
+                    rs -> rs.getInt("total"), courseId);
+
+        } catch (SQLException | ClassNotFoundException e) {
+            e.printStackTrace();
+        }
+        return total;
+    }
+
     public static boolean hasPlayerCompleted(String playerName, String courseName) {
+        if (LeaderboardManager.getInstance().isLoaded() && getCachedCourseId(courseName).isPresent()) {
+            return LeaderboardManager.getInstance().hasPlayerCompleted(playerName, courseName);
+        }
+
         boolean completed = true;
         try {
             int courseId = getCourseId(courseName);
@@ -416,35 +648,79 @@ public class DatabaseMethods {
                 return true;
             }
 
-            PreparedStatement ps = Parkour.getDatabase().openConnection()
-                    .prepareStatement("SELECT 1 FROM time WHERE courseId=? AND player=? LIMIT 1;");
-            ps.setInt(1, courseId);
-            ps.setString(2, playerName);
-            ResultSet rs = ps.executeQuery();
-            if (!rs.next()) {
-                completed = false;
-            }
+            completed = Parkour.getDatabase().querySingle("SELECT 1 FROM personal_best WHERE courseId=? AND player=?;",
+                    rs -> true, courseId, playerName) != null;
 
         } catch (SQLException | ClassNotFoundException e) {
             e.printStackTrace();
-        } finally {
-            Parkour.getDatabase().closeConnection();
         }
         return completed;
     }
 
     public static void recreateAllCourses() {
-        Bukkit.getScheduler().runTaskLaterAsynchronously(Parkour.getPlugin(), () -> {
+        // the course config can only be read on the server thread
+        Map<String, String> creators = new LinkedHashMap<>();
+        for (String courseName : CourseInfo.getAllCourses()) {
+            creators.put(courseName, CourseInfo.getCreator(courseName));
+        }
+        Map<String, String> courses = Collections.unmodifiableMap(creators);
+
+        DatabaseQueryManager.getInstance().supplyAsync(() -> {
             Utils.logToFile("Started courses recreation.");
             Utils.log("Starting recreation of courses process...");
+            loadCourseIds();
             int changes = 0;
-            for (String courseName : CourseInfo.getAllCourses()) {
-                if (getCourseId(courseName) == 0) {
-                    insertCourse(courseName, CourseInfo.getCreator(courseName));
+            for (Map.Entry<String, String> course : courses.entrySet()) {
+                if (!getCachedCourseId(course.getKey()).isPresent()) {
+                    insertCourse(course.getKey(), course.getValue());
                     changes++;
                 }
             }
             Utils.log("Process complete. Courses recreated: " + changes);
-        }, 1);
+            return changes;
+        });
+    }
+
+    // Asynchronous versions of the queries, results which can be served from the leaderboards are completed immediately.
+    // Otherwise the database is queried away from the server thread, use DatabaseQueryManager#thenSync to handle the result.
+
+    public static CompletableFuture<List<TimeObject>> getTopCourseResultsAsync(String courseName, int limit) {
+        return supplyAsync(() -> getTopCourseResults(courseName, limit), isIndexed(courseName));
+    }
+
+    public static CompletableFuture<List<TimeObject>> getTopPlayerCourseResultsAsync(String playerName, String courseName, int limit) {
+        return supplyAsync(() -> getTopPlayerCourseResults(playerName, courseName, limit), isIndexed(courseName));
+    }
+
+    public static CompletableFuture<LeaderboardPosition> getLeaderboardPositionAsync(String playerName, String courseName, int radius) {
+        return supplyAsync(() -> getLeaderboardPosition(playerName, courseName, radius), isIndexed(courseName));
+    }
+
+    public static CompletableFuture<Integer> getCompletedPlayerCountAsync(String courseName) {
+        return supplyAsync(() -> getCompletedPlayerCount(courseName), isIndexed(courseName));
+    }
+
+    public static CompletableFuture<Boolean> hasPlayerCompletedAsync(String playerName, String courseName) {
+        return supplyAsync(() -> hasPlayerCompleted(playerName, courseName), isIndexed(courseName));
+    }
+
+    public static CompletableFuture<Boolean> hasVotedAsync(String courseName, String playerName) {
+        return supplyAsync(() -> hasVoted(courseName, playerName), VoteManager.getInstance().isPlayerLoaded(playerName));
+    }
+
+    public static CompletableFuture<Double> getVotePercentAsync(String courseName) {
+        return supplyAsync(() -> getVotePercent(courseName), VoteManager.getInstance().isLoaded());
+    }
+
+    /**
+     * The leaderboards can only be used if the course's ID is cached, otherwise it would be looked up.
+     */
+    private static boolean isIndexed(String courseName) {
+        return LeaderboardManager.getInstance().isLoaded() && getCachedCourseId(courseName).isPresent();
+    }
+
+    private static <T> CompletableFuture<T> supplyAsync(Supplier<T> query, boolean immediate) {
+        return immediate ? CompletableFuture.completedFuture(query.get())
+                : DatabaseQueryManager.getInstance().supplyAsync(query);
     }
 }
@@ -0,0 +1,164 @@
+package me.A5H73Y.parkour.utilities;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+
+import com.huskehhh.mysql.Database;
+import me.A5H73Y.parkour.Parkour;
+import me.A5H73Y.parkour.enums.DatabaseType;
+
+/**
+ * Versioned changes to the database schema.
+ * Each migration is applied once, in order, and recorded in the schema_version table.
+ * Every step checks the current state of the schema first, so it is safe to run again.
+ */
+public class DatabaseMigrations {
+
+    private static final List<Migration> MIGRATIONS = Arrays.asList(
+            new Migration(1, "Store times as BIGINT", DatabaseMigrations::convertTimeToBigint),
+            new Migration(2, "Index times by course", connection ->
+                    createIndex(connection, "idx_time_course_time", "time", "courseId, time")),
+            new Migration(3, "Index times by course and player", connection ->
+                    createIndex(connection, "idx_time_course_player_time", "time", "courseId, player, time")),
+            new Migration(4, "Index times by player", connection ->
+                    createIndex(connection, "idx_time_player", "time", "player")),
+            new Migration(5, "Store personal bests", DatabaseMigrations::createPersonalBests),
+            new Migration(6, "Index personal bests by course", connection ->
+                    createIndex(connection, "idx_personal_best_course_time", "personal_best", "courseId, time"))
+    );
+
+    /**
+     * Apply any migrations newer than the current schema version.
+     * Stops at the first migration to fail, so later migrations are never applied out of order.
+     */
+    public static void migrate() {
+        Connection connection = null;
+        try {
+            connection = Parkour.getDatabase().borrowConnection();
+
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("CREATE TABLE IF NOT EXISTS schema_version (version INTEGER PRIMARY KEY, description VARCHAR(100) NOT NULL, applied TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL);");
+            }
+
+            int currentVersion = getSchemaVersion(connection);
+
+            for (Migration migration : MIGRATIONS) {
+                if (migration.version <= currentVersion) {
+                    continue;
+                }
+
+                Utils.log("[SQL] Applying migration " + migration.version + ": " + migration.description);
+                connection.setAutoCommit(false);
+                migration.step.apply(connection);
+
+                PreparedStatement ps = Parkour.getDatabase().prepareStatement(connection, "INSERT INTO schema_version (version, description) VALUES (?, ?);");
+                Database.bind(ps, migration.version, migration.description);
+                ps.executeUpdate();
+                connection.commit();
+                connection.setAutoCommit(true);
+            }
+
+        } catch (SQLException | ClassNotFoundException e) {
+            Utils.log("[SQL] Migration failed: " + e.getMessage(), 2);
+            e.printStackTrace();
+        } finally {
+            Parkour.getDatabase().returnConnection(connection);
+        }
+    }
+
+    private static int getSchemaVersion(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            ResultSet rs = statement.executeQuery("SELECT MAX(version) AS version FROM schema_version;");
+            return rs.next() ? rs.getInt("version") : 0;
+        }
+    }
+
+    /**
+     * MySQL can modify the column in place, SQLite has to rebuild the table.
+     */
+    private static void convertTimeToBigint(Connection connection) throws SQLException {
+        if (getColumnType(connection, "time", "time").equalsIgnoreCase("BIGINT")) {
+            return;
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            if (DatabaseMethods.type == DatabaseType.MySQL) {
+                statement.executeUpdate("ALTER TABLE time MODIFY time BIGINT NOT NULL;");
+                return;
+            }
+
+            statement.executeUpdate("DROP TABLE IF EXISTS time_migration;");
+            statement.executeUpdate("CREATE TABLE time_migration (timeId INTEGER PRIMARY KEY, courseId INTEGER NOT NULL, player VARCHAR(20) NOT NULL, time BIGINT NOT NULL, deaths INT(5) NOT NULL, FOREIGN KEY (courseId) REFERENCES course(courseId) ON DELETE CASCADE ON UPDATE CASCADE);");
+            statement.executeUpdate("INSERT INTO time_migration (timeId, courseId, player, time, deaths) SELECT timeId, courseId, player, CAST(time AS INTEGER), deaths FROM time;");
+            statement.executeUpdate("DROP TABLE time;");
+            statement.executeUpdate("ALTER TABLE time_migration RENAME TO time;");
+        }
+    }
+
+    /**
+     * Create the personal best table, populated with each player's fastest time from the history of times.
+     */
+    private static void createPersonalBests(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("CREATE TABLE IF NOT EXISTS personal_best (courseId INTEGER NOT NULL, player VARCHAR(20) NOT NULL, time BIGINT NOT NULL, deaths INT(5) NOT NULL, achieved TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL, PRIMARY KEY (courseId, player), FOREIGN KEY (courseId) REFERENCES course(courseId) ON DELETE CASCADE ON UPDATE CASCADE);");
+
+            ResultSet rs = statement.executeQuery("SELECT COUNT(*) AS total FROM personal_best;");
+            if (rs.next() && rs.getInt("total") > 0) {
+                return;
+            }
+
+            statement.executeUpdate("INSERT INTO personal_best (courseId, player, time, deaths) "
+                    + "SELECT t.courseId, t.player, t.time, t.deaths FROM time t WHERE t.timeId = "
+                    + "(SELECT t2.timeId FROM time t2 WHERE t2.courseId = t.courseId AND t2.player = t.player ORDER BY t2.time, t2.timeId LIMIT 1);");
+        }
+    }
+
+    private static void createIndex(Connection connection, String indexName, String table, String columns) throws SQLException {
+        if (hasIndex(connection, table, indexName)) {
+            return;
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("CREATE INDEX " + indexName + " ON " + table + " (" + columns + ");");
+        }
+    }
+
+    private static boolean hasIndex(Connection connection, String table, String indexName) throws SQLException {
+        try (ResultSet rs = connection.getMetaData().getIndexInfo(connection.getCatalog(), null, table, false, false)) {
+            while (rs.next()) {
+                if (indexName.equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String getColumnType(Connection connection, String table, String column) throws SQLException {
+        try (ResultSet rs = connection.getMetaData().getColumns(connection.getCatalog(), null, table, column)) {
+            return rs.next() ? rs.getString("TYPE_NAME") : "";
+        }
+    }
+
+    private interface MigrationStep {
+        void apply(Connection connection) throws SQLException;
+    }
+
+    private static class Migration {
+
+        private final int version;
+        private final String description;
+        private final MigrationStep step;
+
+        private Migration(int version, String description, MigrationStep step) {
+            this.version = version;
+            this.description = description;
+            this.step = step;
+        }
+    }
+}
@@ -61,10 +61,6 @@ public class Settings {
         return getConfig().getBoolean("OnCourse.Trails.Enabled");
     }
 
-    public boolean isAttemptLessChecks() {
-        return getConfig().getBoolean("OnCourse.AttemptLessChecks");
-    }
-
     public boolean isDisplayWelcomeMessage() {
         return getConfig().getBoolean("Other.Display.JoinWelcomeMessage");
     }
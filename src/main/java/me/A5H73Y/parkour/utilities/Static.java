@@ -11,6 +11,8 @@ import me.A5H73Y.parkour.Parkour;
 public final class Static {
 
     public final static String PLAYING_BIN_PATH = Parkour.getPlugin().getDataFolder() + File.separator + "playing.bin";
+    public final static String SESSIONS_PATH = Parkour.getPlugin().getDataFolder() + File.separator + "sessions.dat";
+    public final static String SESSIONS_JOURNAL_PATH = Parkour.getPlugin().getDataFolder() + File.separator + "sessions.journal";
     private static List<String> hidden = new ArrayList<>();
     private static Map<String, Long> delay = new HashMap<>();
     private static boolean economy = false;
@@ -2,11 +2,9 @@ package me.A5H73Y.parkour.utilities;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.PrintWriter;
 import java.text.Format;
 import java.text.SimpleDateFormat;
@@ -15,6 +13,7 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Set;
+import java.util.UUID;
 
 import com.connorlinfoot.bountifulapi.BountifulAPI;
 import me.A5H73Y.parkour.Parkour;
@@ -23,6 +22,7 @@ import me.A5H73Y.parkour.course.CourseMethods;
 import me.A5H73Y.parkour.kit.ParkourKitInfo;
 import me.A5H73Y.parkour.manager.QuestionManager;
 import me.A5H73Y.parkour.manager.QuietModeManager;
+import me.A5H73Y.parkour.other.LeaderboardPosition;
 import me.A5H73Y.parkour.other.TimeObject;
 import me.A5H73Y.parkour.other.Validation;
 import me.A5H73Y.parkour.player.PlayerInfo;
@@ -395,25 +395,7 @@ public final class Utils {
     }
 
     /**
-     * Used for saving the ParkourSessions.
-     * Thanks to Tomsik68 for this code.
-     *
-     * @param obj
-     * @param path
-     */
-    public static void saveAllPlaying(Object obj, String path) {
-        try {
-            ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(path));
-            oos.writeObject(obj);
-            oos.flush();
-            oos.close();
-        } catch (Exception ex) {
-            ex.printStackTrace();
-        }
-    }
-
-    /**
-     * Used for loading the ParkourSessions.
+     * Used for loading the ParkourSessions saved by an older version.
      * Thanks to Tomsik68 for this code.
      *
      * @param path
@@ -561,7 +543,7 @@ public final class Utils {
 
         } else if (args[1].equalsIgnoreCase("autostart")) {
             Location location = player.getLocation();
-            if (CourseMethods.getAutoStartCourse(location) == null) {
+            if (CourseMethods.getAutoStartCourse(location.getBlockX(), location.getBlockY(), location.getBlockZ()) == null) {
                 player.sendMessage(Static.getParkourString() + "There is no autostart at this location");
                 return;
             }
@@ -678,6 +660,42 @@ public final class Utils {
         }
     }
 
+    /**
+     * Display the player's Leaderboard position
+     * Includes the players surrounding them, if known
+     *
+     * @param player
+     * @param position
+     * @param courseName
+     */
+    public static void displayLeaderboardPosition(Player player, LeaderboardPosition position, String courseName) {
+        if (position == null) {
+            player.sendMessage(Static.getParkourString() + "No results were found!");
+            return;
+        }
+
+        if (!position.getNeighbours().isEmpty()) {
+            player.sendMessage(getStandardHeading(getTranslation("Parkour.LeaderboardPositionHeading", false)
+                    .replace("%COURSE%", courseName)));
+
+            List<TimeObject> neighbours = position.getNeighbours();
+            for (int i = 0; i < neighbours.size(); i++) {
+                String translation = getTranslation("Parkour.LeaderboardEntry", false)
+                        .replace("%POSITION%", String.valueOf(position.getFirstNeighbourPosition() + i))
+                        .replace("%PLAYER%", neighbours.get(i).getPlayer())
+                        .replace("%TIME%", displayCurrentTime(neighbours.get(i).getTime()))
+                        .replace("%DEATHS%", String.valueOf(neighbours.get(i).getDeaths()));
+
+                player.sendMessage(translation);
+            }
+        }
+
+        player.sendMessage(getTranslation("Parkour.LeaderboardPosition")
+                .replace("%POSITION%", String.valueOf(position.getPosition()))
+                .replace("%TOTAL%", String.valueOf(position.getTotal()))
+                .replace("%COURSE%", courseName));
+    }
+
     /**
      * Get an ItemStack for the material with a display name of a translated message
      *
@@ -864,8 +882,9 @@ public final class Utils {
     public static List<Player> getOnlineParkourPlayers() {
         List<Player> onlineParkourPlayers = new ArrayList<>();
 
-        for (Player player : Bukkit.getServer().getOnlinePlayers()) {
-            if (PlayerMethods.isPlaying(player.getName())) {
+        for (UUID playerId : PlayerMethods.getPlaying().getPlayerIds()) {
+            Player player = Bukkit.getPlayer(playerId);
+            if (player != null) {
                 onlineParkourPlayers.add(player);
             }
         }
@@ -1021,6 +1040,19 @@ public final class Utils {
         return days * 86400000; //(24*60*60*1000)
     }
 
+    /**
+     * Pack block coordinates into a single value, so they can be compared or used as a key without allocating.
+     * X and Z use 26 bits each, and Y uses 12 bits.
+     *
+     * @param x
+     * @param y
+     * @param z
+     * @return packed coordinates
+     */
+    public static long packBlockCoordinates(int x, int y, int z) {
+        return ((long) x & 0x3FFFFFF) << 38 | ((long) z & 0x3FFFFFF) << 12 | ((long) y & 0xFFF);
+    }
+
     /**
      * Lookup the matching Material
      * Use the 1.13 API to lookup the Material,